@@ -0,0 +1,129 @@
+package benchmark;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.GameStatus;
+import chess.InvalidMoveException;
+import chess.engine.Evaluator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks for the public ChessGame API over the standard positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private ChessGame game;
+    private List<ChessPosition> sideToMove;
+    private ChessMove firstMove;
+    private final Evaluator evaluator = new Evaluator();
+
+    @Setup(Level.Trial)
+    public void loadPosition() {
+        game = Fen.parse(Positions.byName(position).fen());
+        sideToMove = new ArrayList<>();
+        ChessBoard board = game.getBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition square = ChessPosition.of(row, col);
+                ChessPiece piece = board.getPiece(square);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    sideToMove.add(square);
+                }
+            }
+        }
+        for (ChessPosition square : sideToMove) {
+            if (firstMove == null && !game.validMoves(square).isEmpty()) {
+                firstMove = game.validMoves(square).iterator().next();
+            }
+        }
+    }
+
+    // every legal move for the side to move
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition square : sideToMove) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    // after the first call this is a key comparison against the memoized snapshot
+    @Benchmark
+    public boolean cachedStatus() {
+        GameStatus status = game.getStatus();
+        return status.isInCheckmate(game.getTeamTurn()) || status.isInStalemate(game.getTeamTurn());
+    }
+
+    // reads the board's running material and piece-square totals
+    @Benchmark
+    public int evaluate() {
+        return evaluator.evaluate(game.getBoard(), game.getTeamTurn());
+    }
+
+    @State(Scope.Thread)
+    public static class MoveState {
+        ChessGame game;
+        ChessMove move;
+
+        // makeMove changes the game, so every invocation starts from a fresh copy
+        @Setup(Level.Invocation)
+        public void reload(EngineBenchmark benchmark) {
+            game = Fen.parse(Positions.byName(benchmark.position).fen());
+            move = benchmark.firstMove;
+        }
+    }
+
+    @Benchmark
+    public ChessGame makeMove(MoveState state) throws InvalidMoveException {
+        state.game.makeMove(state.move);
+        return state.game;
+    }
+
+    // applies and takes back the same move, leaving the game unchanged
+    @Benchmark
+    public ChessGame doUndoMove() {
+        game.doMove(firstMove);
+        game.undoMove();
+        return game;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 2)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long perft3() {
+        return Perft.perft(game, 3);
+    }
+}
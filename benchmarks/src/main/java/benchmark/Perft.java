@@ -0,0 +1,71 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth and checks the
+ * counts against published references. Any mismatch means move generation is
+ * broken, so the process exits with a non-zero status and can gate a deploy.
+ * <p>
+ * Usage: {@code Perft [position name] [depth]}, defaulting to every position at
+ * its reference depth.
+ */
+public class Perft {
+
+    public static long perft(ChessGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        // one reusable move list per ply, so the walk itself does not allocate
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return perft(game, depth, lists);
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth];
+        moves.clear();
+        game.legalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        boolean passed = true;
+        for (Positions.Position position : Positions.ALL) {
+            if (args.length > 0 && !args[0].equals(position.name())) {
+                continue;
+            }
+            int depth = args.length > 1 ? Integer.parseInt(args[1]) : position.perftDepth();
+            ChessGame game = Fen.parse(position.fen());
+
+            long start = System.nanoTime();
+            long nodes = perft(game, depth);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            String status = "";
+            if (depth == position.perftDepth()) {
+                boolean match = nodes == position.perftNodes();
+                passed &= match;
+                status = match ? "ok" : "MISMATCH (expected " + position.perftNodes() + ")";
+            }
+            System.out.printf("%-15s depth %d: %,12d nodes  %8.3f s  %,12.0f nodes/s  %s%n",
+                    position.name(), depth, nodes, seconds, nodes / seconds, status);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package benchmark;
+
+import java.util.List;
+
+/**
+ * Standard positions shared by the perft driver and the JMH benchmarks.
+ * <p>
+ * The engine has no castling or en passant, so every position here has no
+ * castling rights, and the perft references only go as deep as no en passant
+ * capture can appear. Reference counts are the published perft results.
+ */
+public class Positions {
+
+    public record Position(String name, String fen, int perftDepth, long perftNodes) {
+    }
+
+    public static final Position OPENING = new Position("opening",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w", 4, 197281);
+    public static final Position MIDDLEGAME = new Position("middlegame",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w", 3, 89890);
+    public static final Position ENDGAME = new Position("endgame",
+            "8/8/2k5/5q2/5n2/8/5K2/8 b", 4, 23527);
+    public static final Position PROMOTION = new Position("promotion",
+            "4k3/1P6/8/8/8/8/K7/8 w", 6, 217342);
+    public static final Position UNDERPROMOTION = new Position("underpromotion",
+            "8/k1P5/8/1K6/8/8/8/8 w", 7, 567584);
+    public static final Position STALEMATE = new Position("stalemate",
+            "K1k5/8/P7/8/8/8/8/8 w", 6, 2217);
+
+    public static final List<Position> ALL = List.of(OPENING, MIDDLEGAME, ENDGAME, PROMOTION, UNDERPROMOTION, STALEMATE);
+
+    public static Position byName(String name) {
+        for (Position position : ALL) {
+            if (position.name().equals(name)) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException("Unknown position: " + name);
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the parallel search to finish a fixed depth, by thread count. The
+ * speedup of N threads is the 1-thread time over the N-thread time; the table
+ * is cleared before every search so no run starts with another run's results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"opening", "middlegame"})
+    public String position;
+
+    @Param({"6"})
+    public int depth;
+
+    private TranspositionTable table;
+    private ParallelSearch search;
+    private ChessGame game;
+
+    @Setup(Level.Trial)
+    public void start() {
+        table = new TranspositionTable(32);
+        search = new ParallelSearch(threads, table);
+        game = Fen.parse(Positions.byName(position).fen());
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        search.close();
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        return search.search(game, SearchLimits.depth(depth));
+    }
+}
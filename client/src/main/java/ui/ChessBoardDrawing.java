@@ -59,7 +59,7 @@ public class ChessBoardDrawing {
 
         for (int col = 0; col < BOARD_SIZE; col++) {
             int actualCol = isBlackPerspective ? BOARD_SIZE - 1 - col : col;
-            ChessPosition position = new ChessPosition(dataRow + 1, actualCol + 1);
+            ChessPosition position = ChessPosition.of(dataRow + 1, actualCol + 1);
 
             boolean isHighlighted = highlights != null && highlights.contains(position);
             boolean isWhiteSquare = (dataRow + actualCol) % 2 != 0;
@@ -112,7 +112,7 @@ public class ChessBoardDrawing {
             boolean isWhiteSquare = (dataRow + actualCol) % 2 != 0;
             String bgColor = isWhiteSquare ? SET_BG_COLOR_LIGHT_GREY : SET_BG_COLOR_DARK_GREY;
 
-            ChessPiece piece = board.getPiece(new ChessPosition(dataRow + 1, actualCol + 1));
+            ChessPiece piece = board.getPiece(ChessPosition.of(dataRow + 1, actualCol + 1));
             output.print(bgColor + getPieceSymbol(piece) + RESET_BG_COLOR);
         }
         output.printf(" %d%n", displayRow);
@@ -17,6 +17,8 @@ public class GameplayClient implements WebSocketFacade.NotificationHandler {
     private final Integer gameID;
     private final String authToken;
     private boolean inGame;
+    // highlight and move checks repeat on the same position until the next LOAD_GAME
+    private final LegalMoveCache moveCache = new LegalMoveCache(1024);
 
     public GameplayClient(String url, String authToken, Integer gameID, String playerColor) throws ResponseException {
         this.webSocketFacade = new WebSocketFacade(url, this::notify, authToken, gameID, playerColor);
@@ -84,6 +86,7 @@ public class GameplayClient implements WebSocketFacade.NotificationHandler {
             boolean isBlackPerspective = "BLACK".equalsIgnoreCase(playerColor);
             System.out.println("game board: " + game.getBoard());
             ChessBoardDrawing.drawChessboard(game.getBoard(), isBlackPerspective, null); // Pass the board
+            printStatus();
         } else {
             ChessBoard defaultBoard = new ChessBoard();
             defaultBoard.resetBoard();
@@ -162,7 +165,7 @@ public class GameplayClient implements WebSocketFacade.NotificationHandler {
 
         try {
             ChessPosition position = parsePosition(tokens[1]);
-            Collection<ChessMove> validMoves = game.validMoves(position);
+            Collection<ChessMove> validMoves = moveCache.validMoves(game, position);
             Set<ChessPosition> highlightedPositions = new HashSet<>();
 
             for (ChessMove move : validMoves) {
@@ -176,6 +179,19 @@ public class GameplayClient implements WebSocketFacade.NotificationHandler {
         }
     }
 
+    // the status is memoized per position, so redrawing does not recompute it
+    private void printStatus() {
+        GameStatus status = game.getStatus();
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        if (status.isInCheckmate(turn)) {
+            System.out.println(turn + " is in checkmate.");
+        } else if (status.isInStalemate(turn)) {
+            System.out.println(turn + " is in stalemate.");
+        } else if (status.isInCheck(turn)) {
+            System.out.println(turn + " is in check.");
+        }
+    }
+
     private void redrawBoardWithHighlights(Set<ChessPosition> highlights) {
         if (game != null) {
             boolean isBlackPerspective = "BLACK".equalsIgnoreCase(playerColor);
@@ -229,7 +245,7 @@ public class GameplayClient implements WebSocketFacade.NotificationHandler {
         }
         int col = pos.charAt(0) - 'a' + 1;
         int row = Character.getNumericValue(pos.charAt(1));
-        return new ChessPosition(row, col);
+        return ChessPosition.of(row, col);
     }
 
     private boolean isValidMove(ChessMove move) {
@@ -237,8 +253,11 @@ public class GameplayClient implements WebSocketFacade.NotificationHandler {
             if (game.getTeamTurn() != getPlayerTeamColor()) {
                 return false;
             }
+            if (game.getStatus().getLegalMoveCount(game.getTeamTurn()) == 0) {
+                return false;
+            }
 
-            return game.validMoves(move.getStartPosition()).contains(move);
+            return moveCache.validMoves(game, move.getStartPosition()).contains(move);
         } catch (Exception e) {
             return false;
         }
@@ -48,6 +48,7 @@ public class PostClient implements ChessClient {
                 case "create" -> handleCreateGame(tokens);
                 case "list" -> handleListGames();
                 case "join" -> handleJoinGame(tokens);
+                case "bot" -> handleAddBot(tokens);
                 case "observe" -> handleObserveGame(tokens);
                 case "logout" -> {}
                 default -> System.out.println("Unknown command. Type 'help' for possible commands.");
@@ -83,6 +84,7 @@ public class PostClient implements ChessClient {
                 create <NAME>           - a game
                 list                    - games
                 join <ID> [WHITE|BLACK] - a game
+                bot <ID> [WHITE|BLACK]  - seat the computer in a game
                 observe <ID>            - a game
                 logout                  - when you are done
                 help                    - with possible commands
@@ -180,6 +182,36 @@ public class PostClient implements ChessClient {
         }
     }
 
+    private void handleAddBot(String[] tokens) throws ResponseException {
+        if (tokens.length != 3) {
+            System.out.println("Invalid arguments. bot expects: bot <ID> [WHITE|BLACK]");
+            return;
+        }
+
+        try {
+            Integer gameID = gameIDMap.get(Integer.parseInt(tokens[1]));
+            String botColor = tokens[2].toUpperCase();
+
+            if (!botColor.equals("WHITE") && !botColor.equals("BLACK")) {
+                System.out.println("Invalid color. Must be 'WHITE' or 'BLACK'.");
+                return;
+            }
+            if (gameID == null) {
+                System.out.println("That gameID does not exist, try again.");
+                return;
+            }
+
+            JoinGameResult result = serverFacade.addBot(new JoinGameRequest(botColor, gameID), authToken);
+            if (result != null && result.message().contains("Success")) {
+                System.out.printf("The computer will play %s in game %d.%n", botColor.toLowerCase(), gameID);
+            } else {
+                System.out.println("Unable to seat the computer, that spot may already be taken.");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("gameID must be a number.");
+        }
+    }
+
     private void handleObserveGame(String[] tokens) throws ResponseException {
         System.out.println("Observing game from white team's perspective.");
         if (tokens.length != 2) {
@@ -74,6 +74,11 @@ public class ServerFacade {
         return makeRequest("PUT", "/game", request, authToken, JoinGameResult.class);
     }
 
+    // seats the computer opponent as the requested color
+    public JoinGameResult addBot(JoinGameRequest request, String authToken) throws ResponseException {
+        return makeRequest("PUT", "/game/bot", request, authToken, JoinGameResult.class);
+    }
+
     private <T> T makeRequest(String method, String path, Object body, String authToken, Class<T> responseClass) throws ResponseException {
         try {
             URL url = new URI(serverUrl + path).toURL();
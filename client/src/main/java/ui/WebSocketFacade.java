@@ -1,5 +1,6 @@
 package ui;
 
+import chess.BoardSnapshot;
 import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
@@ -28,6 +29,7 @@ public class WebSocketFacade extends Endpoint {
                             .registerSubtype(NotificationMessage.class, "NOTIFICATION")
             )
             .registerTypeAdapter(ChessGame.class, new ChessGameDeserializer())
+            .registerTypeAdapter(BoardSnapshot.class, new BoardSnapshotDeserializer())
             .registerTypeAdapter(ChessBoard.class, new ChessBoardDeserializer())
             .registerTypeAdapter(ChessPiece.class, new ChessPieceDeserializer())
             .enableComplexMapKeySerialization()
@@ -0,0 +1,58 @@
+import chess.engine.Evaluator;
+import chess.engine.Tuner;
+import chess.engine.TuningSet;
+import dataaccess.DataAccessException;
+import dataaccess.MySqlGameDAO;
+import service.TuningService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tunes the bot's evaluation weights offline and writes them for the server's
+ * {@code -Dchess.bot.eval} setting.
+ * <p>
+ * Usage: {@code TuneEvaluation <output> [--db] [--from weights] [--iterations N] [positions file]...}
+ * <p>
+ * {@code --db} adds the finished games stored in the database. Position files
+ * hold one FEN string and game result per line, for corpora exported from
+ * elsewhere.
+ */
+public class TuneEvaluation {
+    public static void main(String[] args) throws IOException, DataAccessException {
+        if (args.length < 2) {
+            System.err.println("Usage: TuneEvaluation <output> [--db] [--from weights] [--iterations N] [positions file]...");
+            System.exit(2);
+        }
+        TuningSet positions = new TuningSet();
+        Evaluator start = new Evaluator();
+        int iterations = 1000;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--db" -> System.out.printf("%d positions from stored games%n",
+                        new TuningService(new MySqlGameDAO()).addFinishedGames(positions));
+                case "--from" -> start = Evaluator.load(Path.of(args[++i]));
+                case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                default -> {
+                    try (Reader reader = Files.newBufferedReader(Path.of(args[i]))) {
+                        System.out.printf("%d positions from %s%n", positions.read(reader), args[i]);
+                    }
+                }
+            }
+        }
+        if (positions.size() == 0) {
+            System.err.println("No positions to tune on");
+            System.exit(1);
+        }
+
+        long begin = System.nanoTime();
+        Tuner tuner = new Tuner(positions);
+        System.out.printf("K = %.4f, starting error %.6f%n", tuner.fitScale(start), tuner.error(start));
+        Evaluator tuned = tuner.tune(start, iterations, System.out);
+        System.out.printf("final error %.6f after %.1f s on %d cores%n", tuner.error(tuned),
+                (System.nanoTime() - begin) / 1e9, Runtime.getRuntime().availableProcessors());
+        tuned.save(Path.of(args[0]));
+    }
+}
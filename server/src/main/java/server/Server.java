@@ -31,6 +31,7 @@ public class Server {
         new CreateGameHandler(gameService);
         new ListGamesHandler(gameService, userService);
         new JoinGameHandler(gameService, userService);
+        new BotHandler(gameService, userService);
         new ClearHandler(clearService);
 
         Spark.awaitInitialization();
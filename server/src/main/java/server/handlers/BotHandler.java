@@ -0,0 +1,65 @@
+package server.handlers;
+
+import static spark.Spark.put;
+import com.google.gson.Gson;
+import service.GameService;
+import service.UserService;
+
+// class to handle the http requests for seating the computer opponent in a game
+public class BotHandler {
+
+    private final Gson serializer = new Gson();
+    private final UserService userService;
+
+    private record Message(String message) {}
+
+    public record BotRequest(String playerColor, Integer gameID) {}
+
+    public BotHandler(GameService gameService, UserService userService) {
+        this.userService = userService;
+        put("/game/bot", (req, res) -> {
+            String authToken = req.headers("authorization");
+            res.type("application/json");
+            if (authToken == null) {
+                res.status(401);
+                return serializer.toJson(new Message("Error: unauthorized"));
+            }
+
+            try {
+                BotRequest botRequest = serializer.fromJson(req.body(), BotRequest.class);
+                if (botRequest == null || botRequest.gameID == null || botRequest.playerColor == null
+                        || (!botRequest.playerColor().equals("WHITE") && !botRequest.playerColor().equals("BLACK"))) {
+                    res.status(400);
+                    return serializer.toJson(new Message("Error: bad request"));
+                }
+
+                try {
+                    userService.validateAuthToken(authToken);
+                }
+                catch (Exception e) {
+                    res.status(401);
+                    return serializer.toJson(new Message("Error: unauthorized"));
+                }
+
+                GameService.JoinGameResult result = gameService.addBot(
+                        new GameService.JoinGameRequest(botRequest.playerColor, botRequest.gameID), authToken);
+
+                if (result.message().contains("taken")) {
+                    res.status(403);
+                    return serializer.toJson(new Message("Error: already taken"));
+                } else if (result.message().contains("Success")) {
+                    res.status(200);
+                    return serializer.toJson(new GameService.JoinGameResult("Success"));
+                } else {
+                    res.status(400);
+                    return serializer.toJson(new Message(result.message()));
+                }
+            }
+            catch (Exception e) {
+                res.status(500);
+                return serializer.toJson(new Message("Error: " + e.getMessage()));
+            }
+        });
+    }
+
+}
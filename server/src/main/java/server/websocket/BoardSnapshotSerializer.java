@@ -0,0 +1,30 @@
+package server.websocket;
+
+import chess.BoardSnapshot;
+import chess.ChessPiece;
+import com.google.gson.*;
+
+import java.lang.reflect.Type;
+
+// writes a snapshot in the same shape as ChessGameSerializer, so clients read it as a game
+public class BoardSnapshotSerializer implements JsonSerializer<BoardSnapshot> {
+    @Override
+    public JsonElement serialize(BoardSnapshot snapshot, Type type, JsonSerializationContext context) {
+        JsonArray squares = new JsonArray();
+        for (int i = 0; i < 8; i++) {
+            JsonArray row = new JsonArray();
+            for (int j = 0; j < 8; j++) {
+                ChessPiece piece = snapshot.getPiece((7 - i) * 8 + j);
+                row.add(context.serialize(piece));
+            }
+            squares.add(row);
+        }
+        JsonObject board = new JsonObject();
+        board.add("squares", squares);
+        JsonObject obj = new JsonObject();
+        obj.add("board", board);
+        obj.addProperty("teamTurn", snapshot.getTeamTurn().name());
+        obj.addProperty("isGameOver", snapshot.isGameOver());
+        return obj;
+    }
+}
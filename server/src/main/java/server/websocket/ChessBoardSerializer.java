@@ -14,7 +14,7 @@ public class ChessBoardSerializer implements JsonSerializer<ChessBoard> {
         for (int i = 0; i < 8; i++) {
             JsonArray row = new JsonArray();
             for (int j = 0; j < 8; j++) {
-                ChessPiece piece = board.getPiece(new ChessPosition(8 - i, j + 1));
+                ChessPiece piece = board.getPiece(ChessPosition.of(8 - i, j + 1));
                 row.add(context.serialize(piece));
             }
             squares.add(row);
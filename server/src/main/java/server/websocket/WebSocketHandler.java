@@ -1,6 +1,14 @@
 package server.websocket;
 
 import chess.*;
+import chess.engine.Evaluator;
+import chess.engine.OpeningBook;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TablebaseResult;
+import chess.engine.Tablebases;
+import chess.engine.TranspositionTable;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import dataaccess.DataAccessException;
@@ -20,8 +28,15 @@ import websocket.messages.ServerMessage;
 
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @WebSocket
 public class WebSocketHandler {
@@ -36,6 +51,7 @@ public class WebSocketHandler {
                                 .registerSubtype(NotificationMessage.class, "NOTIFICATION")
                 )
                         .registerTypeAdapter(ChessGame.class, new ChessGameSerializer())
+            .registerTypeAdapter(BoardSnapshot.class, new BoardSnapshotSerializer())
             .registerTypeAdapter(ChessBoard.class, new ChessBoardSerializer())
             .registerTypeAdapter(ChessPiece.class, new ChessPieceSerializer())
             .create();
@@ -44,6 +60,36 @@ public class WebSocketHandler {
     private final ConcurrentHashMap<Integer, ConcurrentHashMap<String, Session>> gameConnections = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<Session, String> sessionToAuth = new ConcurrentHashMap<>();
 
+    // computer opponent: a fixed number of concurrent searches with a short queue, each search held
+    // to a time and node budget, so the bot uses at most BOT_THREADS * BOT_SEARCH_THREADS cores
+    // however many games it plays
+    private static final int BOT_THREADS = 2;
+    private static final int BOT_QUEUE = 16;
+    // threads per search and time per move can be set with -Dchess.bot.searchThreads and -Dchess.bot.moveMillis
+    private static final int BOT_SEARCH_THREADS = Integer.getInteger("chess.bot.searchThreads", 1);
+    private static final SearchLimits BOT_LIMITS = new SearchLimits(12, 2_000_000L * BOT_SEARCH_THREADS,
+            Long.getLong("chess.bot.moveMillis", 1_000L));
+    private static final ExecutorService BOT_EXECUTOR = new ThreadPoolExecutor(BOT_THREADS, BOT_THREADS,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(BOT_QUEUE), runnable -> {
+                Thread thread = new Thread(runnable, "chess-bot");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // one table shared by every bot search, so games reaching the same positions reuse each other's work
+    private static final TranspositionTable BOT_TABLE = new TranspositionTable(64);
+    // tuned weights from -Dchess.bot.eval, written by TuneEvaluation
+    private static final Evaluator BOT_EVALUATOR = loadEvaluator(System.getProperty("chess.bot.eval"));
+    private static final ThreadLocal<ParallelSearch> BOT_SEARCH =
+            ThreadLocal.withInitial(() -> new ParallelSearch(BOT_SEARCH_THREADS, BOT_EVALUATOR, BOT_TABLE));
+    // optional book from -Dchess.bot.book, played instantly while the game is still in it
+    private static final OpeningBook BOT_BOOK = loadBook(System.getProperty("chess.bot.book"));
+    // optional endgame tables from -Dchess.bot.tablebases, used by the bot
+    private static final Tablebases TABLEBASES = loadTablebases(System.getProperty("chess.bot.tablebases"));
+    // a table draw only means neither side can force mate with best play, so ending games on
+    // one is left to servers that ask for it with -Dchess.tablebaseDraws=true
+    private static final boolean TABLEBASE_DRAWS = Boolean.getBoolean("chess.tablebaseDraws");
+    private final Set<Integer> botGames = ConcurrentHashMap.newKeySet();
+
     public static void setServices(GameService gameService, UserService userService) {
         WebSocketHandler.gameService = gameService;
         WebSocketHandler.userService = userService;
@@ -140,6 +186,9 @@ public class WebSocketHandler {
             String notification = authData.username() + " joined as " + playerRole;
             broadcast(command.getGameID(), new NotificationMessage(notification), command.getAuthToken());
 
+            // a computer playing white moves as soon as someone is there to see it
+            requestBotMove(gameData, currentGame);
+
         } catch (Exception e) {
             System.err.println("[WebSocketHandler] Connection error: " + e.getMessage());
             sendError(session, "Connection failed: " + e.getMessage());
@@ -157,54 +206,196 @@ public class WebSocketHandler {
             GameData gameData = gameService.getGame(new GameService.GetGameRequest(command.getGameID())).game();
             ChessGame chessGame = gameData.game();
 
-            if (chessGame.isGameOver()) {
-                throw new IOException();
-            }
-
+            // observers have no turn; everything else is checked by the game without throwing
             ChessGame.TeamColor playerTeam = null;
             if (username.equals(gameData.whiteUsername())) {
                 playerTeam = ChessGame.TeamColor.WHITE;
             } else if (username.equals(gameData.blackUsername())) {
                 playerTeam = ChessGame.TeamColor.BLACK;
-            } else {
-                throw new IOException();
             }
-
-            if (chessGame.getTeamTurn() != playerTeam) {
-                throw new IOException();
+            long key = chessGame.getZobristKey();
+            MoveResult result = playerTeam == null
+                    ? MoveResult.NOT_YOUR_TURN : chessGame.tryMove(command.getMove(), playerTeam);
+            if (!result.isApplied()) {
+                sendError(session, result.getMessage());
+                return;
             }
 
-            ChessPosition start = command.getMove().getStartPosition();
-            ChessPiece piece = chessGame.getBoard().getPiece(start);
-            if (piece == null || piece.getTeamColor() != playerTeam) {
-                throw new IOException();
+            if (!finishMove(gameData, key, chessGame, username, command.getMove(), command.getAuthToken())) {
+                sendError(session, "Error: the game changed before the move was made");
+                return;
             }
+            requestBotMove(gameData, chessGame);
 
-            chessGame.makeMove(command.getMove());
+        } catch (Exception e) {
+            sendError(session, "Server error: " + e.getMessage());
+        }
+    }
 
-            GameData updatedGame = new GameData(
-                    gameData.gameID(),
-                    gameData.whiteUsername(),
-                    gameData.blackUsername(),
-                    gameData.gameName(),
-                    chessGame
-            );
-            gameService.updateGame(command.getGameID(), updatedGame.game());
 
-            broadcastToAll(command.getGameID(), new LoadGameMessage(chessGame));
-            String notification = userService.authDAO.getAuth(command.getAuthToken()).username() + " moved " + command.getMove();
-            broadcast(command.getGameID(), new NotificationMessage(notification), command.getAuthToken());
 
-        } catch (InvalidMoveException e) {
-            sendError(session, e.getMessage());
+
+
+    // stores a move that has been made, then tells everyone in the game about it and about any
+    // check, mate or draw it caused. Returns false without telling anyone if the stored game is no
+    // longer at expectedKey, the position the move was made from, e.g. because someone resigned
+    private boolean finishMove(GameData gameData, long expectedKey, ChessGame chessGame, String username,
+                               ChessMove move, String excludeAuth) throws DataAccessException, IOException {
+        // the status is built once here and reused for every check below
+        GameStatus status = chessGame.getStatus();
+        ChessGame.TeamColor nextTeam = chessGame.getTeamTurn();
+        String nextPlayer = nextTeam == ChessGame.TeamColor.WHITE ? gameData.whiteUsername() : gameData.blackUsername();
+        String statusNotification = null;
+        if (status.isInCheckmate(nextTeam)) {
+            chessGame.setGameOver(true);
+            statusNotification = nextPlayer + " is in checkmate. Game over!";
+        } else if (status.isInStalemate(nextTeam)) {
+            chessGame.setGameOver(true);
+            statusNotification = nextPlayer + " is in stalemate. Game over!";
+        } else if (chessGame.isThreefoldRepetition()) {
+            chessGame.setGameOver(true);
+            statusNotification = "Draw by threefold repetition. Game over!";
+        } else if (chessGame.isFiftyMoveRule()) {
+            chessGame.setGameOver(true);
+            statusNotification = "Draw by the fifty-move rule. Game over!";
+        } else if (chessGame.isInsufficientMaterial()) {
+            chessGame.setGameOver(true);
+            statusNotification = "Draw by insufficient material. Game over!";
+        } else if (isTablebaseDraw(chessGame)) {
+            chessGame.setGameOver(true);
+            statusNotification = "Draw, neither side can force mate. Game over!";
+        } else if (status.isInCheck(nextTeam)) {
+            statusNotification = nextPlayer + " is in check";
+        }
+
+        if (!gameService.updateGameIfUnchanged(gameData.gameID(), expectedKey, chessGame)) {
+            return false;
+        }
+
+        broadcastToAll(gameData.gameID(), new LoadGameMessage(chessGame));
+        broadcast(gameData.gameID(), new NotificationMessage(username + " moved " + move), excludeAuth);
+        if (statusNotification != null) {
+            broadcastToAll(gameData.gameID(), new NotificationMessage(statusNotification));
+        }
+        return true;
+    }
+
+    // hands the game to the computer opponent if it is seated and it is now its turn
+    private void requestBotMove(GameData gameData, ChessGame chessGame) {
+        String nextPlayer = chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE
+                ? gameData.whiteUsername() : gameData.blackUsername();
+        if (chessGame.isGameOver() || !GameService.BOT_USERNAME.equals(nextPlayer)) {
+            return;
+        }
+        int gameID = gameData.gameID();
+        // only one search per game at a time; a second request while it thinks is dropped
+        if (!botGames.add(gameID)) {
+            return;
+        }
+        try {
+            BOT_EXECUTOR.execute(() -> {
+                try {
+                    playBotMove(gameID);
+                } finally {
+                    botGames.remove(gameID);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            botGames.remove(gameID);
+            broadcast(gameID, new NotificationMessage(GameService.BOT_USERNAME + " is busy, try again shortly"), null);
+        }
+    }
+
+    private void playBotMove(int gameID) {
+        try {
+            GameData gameData = gameService.getGame(new GameService.GetGameRequest(gameID)).game();
+            ChessGame chessGame = gameData.game();
+            String botPlayer = chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE
+                    ? gameData.whiteUsername() : gameData.blackUsername();
+            if (chessGame.isGameOver() || !GameService.BOT_USERNAME.equals(botPlayer)) {
+                return;
+            }
+            long key = chessGame.getZobristKey();
+
+            // a table move is perfect and a book move is instant, so either comes before searching
+            int botMove = TABLEBASES == null ? PackedMove.NONE : TABLEBASES.bestMove(chessGame);
+            if (botMove == PackedMove.NONE && BOT_BOOK != null) {
+                botMove = BOT_BOOK.pickMove(chessGame);
+            }
+            if (botMove == PackedMove.NONE) {
+                SearchResult result = BOT_SEARCH.get().search(chessGame, BOT_LIMITS);
+                if (!result.hasMove()) {
+                    return;
+                }
+                System.out.printf("[WebSocketHandler] Bot searched depth %d, %d nodes, table hit rate %.2f%n",
+                        result.depth(), result.nodes(), BOT_TABLE.getHitRate());
+                botMove = result.move();
+            }
+
+            ChessMove move = PackedMove.toChessMove(botMove);
+            MoveResult moved = chessGame.tryMove(move);
+            if (!moved.isApplied()) {
+                System.err.println("[WebSocketHandler] Bot move " + move + " refused: " + moved.getMessage());
+                return;
+            }
+            // the search can take a second, and the game may have been resigned meanwhile
+            if (!finishMove(gameData, key, chessGame, GameService.BOT_USERNAME, move, null)) {
+                System.out.println("[WebSocketHandler] Bot move " + move + " dropped, game " + gameID + " changed");
+            }
         } catch (Exception e) {
-            sendError(session, "Server error: " + e.getMessage());
+            System.err.println("[WebSocketHandler] Bot move failed for game " + gameID + ": " + e.getMessage());
         }
     }
 
+    private static OpeningBook loadBook(String path) {
+        if (path == null) {
+            return null;
+        }
+        try {
+            OpeningBook book = OpeningBook.open(Path.of(path));
+            System.out.printf("[WebSocketHandler] Loaded opening book %s with %d moves%n", path, book.size());
+            return book;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[WebSocketHandler] Could not load opening book " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
 
+    private static Evaluator loadEvaluator(String path) {
+        if (path == null) {
+            return new Evaluator();
+        }
+        try {
+            Evaluator evaluator = Evaluator.load(Path.of(path));
+            System.out.println("[WebSocketHandler] Loaded evaluation weights " + path);
+            return evaluator;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[WebSocketHandler] Could not load evaluation weights " + path + ": " + e.getMessage());
+            return new Evaluator();
+        }
+    }
 
+    private static Tablebases loadTablebases(String directory) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            Tablebases tablebases = Tablebases.open(Path.of(directory));
+            System.out.printf("[WebSocketHandler] Loaded %d tablebases from %s%n", tablebases.getTables().size(), directory);
+            return tablebases;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[WebSocketHandler] Could not load tablebases from " + directory + ": " + e.getMessage());
+            return null;
+        }
+    }
 
+    private static boolean isTablebaseDraw(ChessGame chessGame) {
+        if (TABLEBASES == null || !TABLEBASE_DRAWS) {
+            return false;
+        }
+        TablebaseResult result = TABLEBASES.probe(chessGame);
+        return result != null && result.outcome() == TablebaseResult.Outcome.DRAW;
+    }
 
 private void handleLeave(Session session, LeaveCommand command) throws IOException {
     try {
@@ -257,20 +448,10 @@ private void handleLeave(Session session, LeaveCommand command) throws IOExcepti
                 throw new IOException();
             }
 
-            if (gameData.game().isGameOver()) {
+            if (!gameService.resignGame(command.getGameID())) {
                 throw new IOException();
             }
 
-            ChessGame updatedGame = gameData.game(); // Create copy
-            updatedGame.setGameOver(true); // Add this method to ChessGame
-            gameService.updateGame(command.getGameID(), new GameData(
-                    gameData.gameID(),
-                    gameData.whiteUsername(),
-                    gameData.blackUsername(),
-                    gameData.gameName(),
-                    updatedGame
-            ).game());
-
             String notification = authData.username() + " has resigned. Game over!";
             broadcastToAll(command.getGameID(), new NotificationMessage(notification));
 
@@ -302,11 +483,17 @@ private void handleLeave(Session session, LeaveCommand command) throws IOExcepti
         sendMessage(session, new ErrorMessage(error));
     }
 
+    // the message is serialized once and the same text sent to every session
     private void broadcast(int gameID, ServerMessage message, String excludeAuth) {
         var sessions = gameConnections.getOrDefault(gameID, new ConcurrentHashMap<>());
+        String json = gson.toJson(message);
         sessions.forEach((authToken, session) -> {
             if (!authToken.equals(excludeAuth) && session.isOpen()) {
-                sendMessage(session, message);
+                try {
+                    session.getRemote().sendString(json);
+                } catch (IOException e) {
+                    System.err.println("Failed to send message: " + e.getMessage());
+                }
             }
         });
 
@@ -316,10 +503,11 @@ private void handleLeave(Session session, LeaveCommand command) throws IOExcepti
 
     private void broadcastToAll(int gameID, ServerMessage message) throws IOException {
         var sessions = gameConnections.getOrDefault(gameID, new ConcurrentHashMap<>());
+        String json = gson.toJson(message);
         for (Session session : sessions.values()) {
             if (session.isOpen()) {
                 try {
-                    session.getRemote().sendString(gson.toJson(message));
+                    session.getRemote().sendString(json);
                 } catch (IOException e) {
                     System.err.println("Error sending message to session: " + e.getMessage());
                 }
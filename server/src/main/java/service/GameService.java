@@ -13,6 +13,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class GameService {
+    // seat name of the computer opponent; no user can register under it
+    public static final String BOT_USERNAME = "computer";
+
     public final GameDAO gameDAO;
     private final AuthDAO authDAO;
 
@@ -149,6 +152,49 @@ public class GameService {
         }
     }
 
+    public JoinGameResult addBot(JoinGameRequest joinGameRequest, String authToken) {
+        if (joinGameRequest.playerColor == null) {
+            return new JoinGameResult("Error: Color is null");
+        }
+        if (joinGameRequest.gameID() <= 0) {
+            return new JoinGameResult("Error: invalid game ID");
+        }
+
+        try {
+            AuthData authData = authDAO.getAuth(authToken);
+            if (authData == null || authData.username() == null) {
+                return new JoinGameResult("Error: unauthorized");
+            }
+
+            GameData game = gameDAO.getGame(joinGameRequest.gameID);
+            if (game == null) {
+                return new JoinGameResult("Error: invalid game ID");
+            }
+
+            // one computer seat per game, so two bots never play each other
+            if (BOT_USERNAME.equals(game.whiteUsername()) || BOT_USERNAME.equals(game.blackUsername())) {
+                return new JoinGameResult("Error: already taken");
+            }
+            if (joinGameRequest.playerColor().equalsIgnoreCase("WHITE")) {
+                if (game.whiteUsername() != null) {
+                    return new JoinGameResult("Error: already taken");
+                }
+            } else if (joinGameRequest.playerColor().equalsIgnoreCase("BLACK")) {
+                if (game.blackUsername() != null) {
+                    return new JoinGameResult("Error: already taken");
+                }
+            } else {
+                return new JoinGameResult("Error: invalid color");
+            }
+            gameDAO.joinGame(joinGameRequest.gameID, BOT_USERNAME, joinGameRequest.playerColor());
+
+            return new JoinGameResult("Success");
+        }
+        catch (DataAccessException e) {
+            return new JoinGameResult("Error: " + e.getMessage());
+        }
+    }
+
     public void updateGame(int gameID, ChessGame updatedGame) throws DataAccessException {
         GameData existing = gameDAO.getGame(gameID);
         GameData updated = new GameData(
@@ -161,7 +207,50 @@ public class GameService {
         gameDAO.updateGame(updated);  // Pass full GameData object
     }
 
-    public void updateGamePlayers(int gameID, String white, String black) throws DataAccessException {
+    /**
+     * Stores a game after a move, unless the stored game has ended or moved on
+     * since the move was chosen. The check and the write are made under the same
+     * lock as resigning and leaving, so a move that took a while to find, such as
+     * the computer's, cannot bring back a game that was resigned in the meantime.
+     *
+     * @param gameID      the game to store
+     * @param expectedKey the stored game's {@link ChessGame#getZobristKey()} when the move was chosen
+     * @param updatedGame the game with the move made, loaded separately from the stored one
+     * @return false if the stored game had changed, in which case nothing is written
+     */
+    public synchronized boolean updateGameIfUnchanged(int gameID, long expectedKey, ChessGame updatedGame)
+            throws DataAccessException {
+        GameData existing = gameDAO.getGame(gameID);
+        if (existing == null || existing.game().isGameOver() || existing.game().getZobristKey() != expectedKey) {
+            return false;
+        }
+        gameDAO.updateGame(new GameData(
+                gameID,
+                existing.whiteUsername(),
+                existing.blackUsername(),
+                existing.gameName(),
+                updatedGame
+        ));
+        return true;
+    }
+
+    /**
+     * Ends a game by resignation
+     *
+     * @param gameID the game to end
+     * @return false if there is no such game or it was already over
+     */
+    public synchronized boolean resignGame(int gameID) throws DataAccessException {
+        GameData existing = gameDAO.getGame(gameID);
+        if (existing == null || existing.game().isGameOver()) {
+            return false;
+        }
+        existing.game().setGameOver(true);
+        gameDAO.updateGame(existing);
+        return true;
+    }
+
+    public synchronized void updateGamePlayers(int gameID, String white, String black) throws DataAccessException {
         GameData existing = gameDAO.getGame(gameID);
         GameData updated = new GameData(
                 gameID,
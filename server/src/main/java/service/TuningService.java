@@ -0,0 +1,56 @@
+package service;
+
+import chess.ChessGame;
+import chess.GameStatus;
+import chess.engine.TuningSet;
+import dataaccess.DataAccessException;
+import dataaccess.GameDAO;
+import model.GameData;
+
+/**
+ * Gathers positions from the stored games to tune the bot's evaluation on.
+ * <p>
+ * A stored game keeps only its final position, so each finished game gives one
+ * position. Only games whose result can be read from that position are used:
+ * checkmate, stalemate, threefold repetition, the fifty-move rule and
+ * insufficient material. A game that ended by resignation does not record who
+ * resigned and is skipped.
+ */
+public class TuningService {
+    private final GameDAO gameDAO;
+
+    public TuningService(GameDAO gameDAO) {
+        this.gameDAO = gameDAO;
+    }
+
+    /**
+     * Adds the final position of every finished game with a known result
+     *
+     * @param positions the set to add to
+     * @return number of positions added
+     * @throws DataAccessException if the games cannot be read
+     */
+    public int addFinishedGames(TuningSet positions) throws DataAccessException {
+        int added = 0;
+        for (GameData gameData : gameDAO.listGames()) {
+            ChessGame game = gameData.game();
+            if (game == null || !game.isGameOver()) {
+                continue;
+            }
+            ChessGame.TeamColor turn = game.getTeamTurn();
+            GameStatus status = game.getStatus();
+            double whiteResult;
+            if (status.isInCheckmate(turn)) {
+                whiteResult = turn == ChessGame.TeamColor.WHITE ? 0 : 1;
+            } else if (status.isInStalemate(turn) || game.isThreefoldRepetition() || game.isFiftyMoveRule()
+                    || game.isInsufficientMaterial()) {
+                whiteResult = 0.5;
+            } else {
+                continue;
+            }
+            positions.add(game.getBoard(), whiteResult);
+            added++;
+        }
+        return added;
+    }
+}
@@ -34,6 +34,10 @@ public class UserService {
             return new RegisterResult(null, null, "Error: Invalid input");
         }
 
+        if (registerRequest.username.equals(GameService.BOT_USERNAME)) {
+            return new RegisterResult(null, null, "Error: Username already taken");
+        }
+
         try {
             UserData u = userDAO.getUser(registerRequest.username);
             if (u != null) {
@@ -1,5 +1,8 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import dataaccess.DataAccessException;
 import dataaccess.MemoryAuthDAO;
 import dataaccess.MemoryGameDAO;
@@ -142,4 +145,74 @@ public class GameServiceTests {
         Assertions.assertTrue(result.message().contains("Error:"));
     }
 
+
+    @Test
+    @Order(9)
+    @DisplayName("Add Bot (Positive)")
+    public void addBotPositive() throws DataAccessException {
+        String token = authDAO.createAuthToken("username");
+        GameService.CreateGameResult createGameResult = gameService.createGame(new GameService.CreateGameRequest("test game"), token);
+
+        GameService.JoinGameResult result = gameService.addBot(new GameService.JoinGameRequest("BLACK", createGameResult.gameID()), token);
+
+        Assertions.assertNotNull(createGameResult.gameID());
+        Assertions.assertEquals("Success", result.message());
+    }
+
+
+    @Test
+    @Order(10)
+    @DisplayName("Add Bot (Negative)")
+    public void addBotNegative() throws DataAccessException {
+        String token = authDAO.createAuthToken("username");
+        GameService.CreateGameResult createGameResult = gameService.createGame(new GameService.CreateGameRequest("test game"), token);
+
+        // assert invalid color
+        GameService.JoinGameResult result = gameService.addBot(new GameService.JoinGameRequest("GREEN", createGameResult.gameID()), token);
+        Assertions.assertEquals("Error: invalid color", result.message());
+    }
+
+
+    @Test
+    @Order(11)
+    @DisplayName("Resign While Bot Thinks")
+    public void resignWhileBotThinks() throws DataAccessException {
+        String token = authDAO.createAuthToken("username");
+        int gameID = gameService.createGame(new GameService.CreateGameRequest("test game"), token).gameID();
+        gameService.joinGame(new GameService.JoinGameRequest("BLACK", gameID), token);
+        gameService.addBot(new GameService.JoinGameRequest("WHITE", gameID), token);
+
+        // the bot works on its own copy of the game, as the database hands out, while it searches
+        ChessGame stored = gameService.getGame(new GameService.GetGameRequest(gameID)).game().game();
+        ChessGame thinking = new ChessGame(stored);
+        long key = thinking.getZobristKey();
+
+        Assertions.assertTrue(gameService.resignGame(gameID));
+        Assertions.assertFalse(gameService.resignGame(gameID));
+
+        Assertions.assertTrue(thinking.tryMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)).isApplied());
+        Assertions.assertFalse(gameService.updateGameIfUnchanged(gameID, key, thinking));
+        ChessGame after = gameService.getGame(new GameService.GetGameRequest(gameID)).game().game();
+        Assertions.assertTrue(after.isGameOver());
+        Assertions.assertEquals(key, after.getZobristKey());
+    }
+
+
+    @Test
+    @Order(12)
+    @DisplayName("Move Stored When Unchanged")
+    public void moveStoredWhenUnchanged() throws DataAccessException {
+        String token = authDAO.createAuthToken("username");
+        int gameID = gameService.createGame(new GameService.CreateGameRequest("test game"), token).gameID();
+
+        ChessGame stored = gameService.getGame(new GameService.GetGameRequest(gameID)).game().game();
+        ChessGame moved = new ChessGame(stored);
+        long key = moved.getZobristKey();
+        Assertions.assertTrue(moved.tryMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)).isApplied());
+
+        // a key from another position is refused, the one the move was made from is not
+        Assertions.assertFalse(gameService.updateGameIfUnchanged(gameID, moved.getZobristKey(), moved));
+        Assertions.assertTrue(gameService.updateGameIfUnchanged(gameID, key, moved));
+    }
+
 }
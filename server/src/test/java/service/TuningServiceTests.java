@@ -0,0 +1,41 @@
+package service;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.engine.TuningSet;
+import dataaccess.DataAccessException;
+import dataaccess.MemoryGameDAO;
+import org.junit.jupiter.api.*;
+
+public class TuningServiceTests {
+
+    @Test
+    @DisplayName("Finished Games (Positive)")
+    public void finishedGamesPositive() throws DataAccessException {
+        MemoryGameDAO gameDAO = new MemoryGameDAO();
+        gameDAO.createGame("mate", finished("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1"));
+        gameDAO.createGame("stalemate", finished("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1"));
+
+        TuningSet positions = new TuningSet();
+        Assertions.assertEquals(2, new TuningService(gameDAO).addFinishedGames(positions));
+        Assertions.assertEquals(2, positions.size());
+    }
+
+    @Test
+    @DisplayName("Finished Games (Negative)")
+    public void finishedGamesNegative() throws DataAccessException {
+        MemoryGameDAO gameDAO = new MemoryGameDAO();
+        // still being played, and resigned with no record of who resigned
+        gameDAO.createGame("in progress", Fen.parse("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1"));
+        gameDAO.createGame("resigned", finished(Fen.START_POSITION));
+
+        TuningSet positions = new TuningSet();
+        Assertions.assertEquals(0, new TuningService(gameDAO).addFinishedGames(positions));
+    }
+
+    private static ChessGame finished(String fen) {
+        ChessGame game = Fen.parse(fen);
+        game.setGameOver(true);
+        return game;
+    }
+}
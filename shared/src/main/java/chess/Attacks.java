@@ -0,0 +1,281 @@
+package chess;
+
+/**
+ * Attack lookups for every piece type, built once when the class is loaded.
+ * <p>
+ * Knights, kings and pawns use a fixed table per square. Rooks and bishops use
+ * magic bitboards: the blockers on a square's relevant rays are multiplied by a
+ * per-square magic number so the top bits form a perfect index into a table of
+ * precomputed attack sets.
+ */
+public class Attacks {
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] KNIGHT_JUMPS = {
+            {-2, -1}, {-2, 1}, {2, -1}, {2, 1},
+            {-1, -2}, {-1, 2}, {1, -2}, {1, 2}
+    };
+    private static final int[][] KING_STEPS = {
+            {-1, -1}, {-1, 0}, {-1, 1},
+            {0, -1},           {0, 1},
+            {1, -1},  {1, 0},  {1, 1}
+    };
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    // squares a pawn of the given color attacks, indexed by [color ordinal][square]
+    private static final long[][] PAWN = new long[2][64];
+
+    // squares strictly between two aligned squares, and the whole line through them; empty if not aligned
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final Magic[] ROOK = new Magic[64];
+    private static final Magic[] BISHOP = new Magic[64];
+
+    // per-row seeds known to reach a working magic within a few attempts, which keeps class loading fast
+    private static final long[] MAGIC_SEEDS = {728, 10316, 55013, 32803, 12281, 15100, 16645, 255};
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = stepAttacks(square, KNIGHT_JUMPS);
+            KING[square] = stepAttacks(square, KING_STEPS);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = stepAttacks(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = stepAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+        for (int square = 0; square < 64; square++) {
+            initLines(square, ROOK_DIRECTIONS);
+            initLines(square, BISHOP_DIRECTIONS);
+        }
+        for (int square = 0; square < 64; square++) {
+            ROOK[square] = new Magic(square, ROOK_DIRECTIONS);
+            BISHOP[square] = new Magic(square, BISHOP_DIRECTIONS);
+        }
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK[square].attacks(occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP[square].attacks(occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return ROOK[square].attacks(occupied) | BISHOP[square].attacks(occupied);
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    // squares attacked by a piece of the given type standing on square
+    public static long attacks(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, long occupied) {
+        return switch (type) {
+            case KING -> KING[square];
+            case QUEEN -> queenAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> KNIGHT[square];
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> PAWN[color.ordinal()][square];
+        };
+    }
+
+    /**
+     * Checks whether any piece of attackerColor attacks square. Works outward
+     * from the target: a piece attacks the square exactly when the same kind of
+     * piece standing on the square would attack it back, so each piece type is
+     * one table lookup against the attacker's bitboard, cheapest first.
+     */
+    public static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor attackerColor) {
+        return isSquareAttacked(board, square, attackerColor, board.getOccupancy());
+    }
+
+    // same as above, but with the given occupancy blocking the sliding pieces
+    public static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor attackerColor,
+                                           long occupied) {
+        ChessGame.TeamColor defender = attackerColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if ((PAWN[defender.ordinal()][square] & board.getBitboard(attackerColor, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+        if ((KNIGHT[square] & board.getBitboard(attackerColor, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((KING[square] & board.getBitboard(attackerColor, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = board.getBitboard(attackerColor, ChessPiece.PieceType.QUEEN);
+        long rookLike = board.getBitboard(attackerColor, ChessPiece.PieceType.ROOK) | queens;
+        if (rookLike != 0 && (rookAttacks(square, occupied) & rookLike) != 0) {
+            return true;
+        }
+        long bishopLike = board.getBitboard(attackerColor, ChessPiece.PieceType.BISHOP) | queens;
+        return bishopLike != 0 && (bishopAttacks(square, occupied) & bishopLike) != 0;
+    }
+
+    /**
+     * Gets every piece of attackerColor that attacks square, with the given
+     * occupancy blocking the sliding pieces.
+     */
+    public static long attackersTo(ChessBoard board, int square, ChessGame.TeamColor attackerColor, long occupied) {
+        ChessGame.TeamColor defender = attackerColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = board.getBitboard(attackerColor, ChessPiece.PieceType.QUEEN);
+        return (PAWN[defender.ordinal()][square] & board.getBitboard(attackerColor, ChessPiece.PieceType.PAWN))
+                | (KNIGHT[square] & board.getBitboard(attackerColor, ChessPiece.PieceType.KNIGHT))
+                | (KING[square] & board.getBitboard(attackerColor, ChessPiece.PieceType.KING))
+                | (rookAttacks(square, occupied) & (board.getBitboard(attackerColor, ChessPiece.PieceType.ROOK) | queens))
+                | (bishopAttacks(square, occupied)
+                        & (board.getBitboard(attackerColor, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    private static void initLines(int square, int[][] directions) {
+        for (int[] direction : directions) {
+            // the full line runs through square in both directions
+            long line = Bitboards.bit(square) | slidingAttacks(square, 0L, new int[][]{direction})
+                    | slidingAttacks(square, 0L, new int[][]{{-direction[0], -direction[1]}});
+            long between = 0L;
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                int target = row * 8 + col;
+                BETWEEN[square][target] = between;
+                LINE[square][target] = line;
+                between |= 1L << target;
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+    }
+
+    private static long stepAttacks(int square, int[][] offsets) {
+        long attacks = 0L;
+        int row = square >>> 3;
+        int col = square & 7;
+        for (int[] offset : offsets) {
+            int newRow = row + offset[0];
+            int newCol = col + offset[1];
+            if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
+                attacks |= 1L << (newRow * 8 + newCol);
+            }
+        }
+        return attacks;
+    }
+
+    // walks each ray until it leaves the board or hits a blocker (the blocker is included)
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    // squares whose occupancy can change the attack set; the last square of each ray never matters
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row + direction[0] >= 0 && row + direction[0] < 8
+                    && col + direction[1] >= 0 && col + direction[1] < 8) {
+                mask |= 1L << (row * 8 + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static final class Magic {
+        private final long mask;
+        private final long magic;
+        private final int shift;
+        private final long[] table;
+
+        Magic(int square, int[][] directions) {
+            mask = relevantMask(square, directions);
+            int bits = Long.bitCount(mask);
+            shift = 64 - bits;
+            table = new long[1 << bits];
+
+            // enumerate every blocker subset of the mask (carry-rippler) with its true attack set
+            long[] occupancies = new long[1 << bits];
+            long[] references = new long[1 << bits];
+            long subset = 0L;
+            int count = 0;
+            do {
+                occupancies[count] = subset;
+                references[count] = slidingAttacks(square, subset, directions);
+                count++;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+
+            magic = findMagic(occupancies, references, count, MAGIC_SEEDS[square >>> 3]);
+        }
+
+        long attacks(long occupied) {
+            return table[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+
+        // tries sparse random numbers until one maps every subset without a destructive collision
+        private long findMagic(long[] occupancies, long[] references, int count, long seed) {
+            int[] epoch = new int[table.length];
+            int attempt = 0;
+            while (true) {
+                long candidate = -1L;
+                for (int i = 0; i < 3; i++) {
+                    // xorshift64*
+                    seed ^= seed >>> 12;
+                    seed ^= seed << 25;
+                    seed ^= seed >>> 27;
+                    candidate &= seed * 0x2545F4914F6CDD1DL;
+                }
+                if (Long.bitCount((mask * candidate) & 0xFF00000000000000L) < 6) {
+                    continue;
+                }
+                attempt++;
+                boolean collision = false;
+                for (int i = 0; i < count && !collision; i++) {
+                    int index = (int) ((occupancies[i] * candidate) >>> shift);
+                    if (epoch[index] < attempt) {
+                        epoch[index] = attempt;
+                        table[index] = references[i];
+                    } else if (table[index] != references[i]) {
+                        collision = true;
+                    }
+                }
+                if (!collision) {
+                    return candidate;
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,13 @@
 package chess;
 
-import java.util.Collection;
-
 public class BishopMovesCalculator implements PieceMovesCalculator {
-    private static final int[][] DIRECTIONS = {
-            // possible directions a bishop can move
-            {-1, -1}, {-1, 1},
-            {1, -1}, {1, 1}
-    };
 
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        ChessPiece bishop = board.getPiece(myPosition);
-        return MoveHelper.calculateDirectionalMoves(board, myPosition, DIRECTIONS, bishop.getTeamColor());
+    public void pieceMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece bishop = board.getPiece(square);
+        // diagonal rays stop at the first blocker, which the lookup already accounts for
+        long targets = Attacks.bishopAttacks(square, board.getOccupancy())
+                & ~board.getOccupancy(bishop.getTeamColor());
+        MoveHelper.addMoves(square, targets, board.getOccupancy(), moves);
     }
 }
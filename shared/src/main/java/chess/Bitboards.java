@@ -0,0 +1,48 @@
+package chess;
+
+/**
+ * Helpers for the 64-bit board representation used by {@link ChessBoard}.
+ * <p>
+ * Squares are numbered 0-63 starting at row 1, column 1 (bit 0) and ending at
+ * row 8, column 8 (bit 63), so square = (row - 1) * 8 + (column - 1).
+ */
+public class Bitboards {
+    public static final long EMPTY = 0L;
+    public static final long ALL = ~0L;
+
+    // converts a 1-indexed row and column into a square index
+    public static int square(int row, int col) {
+        return ((row - 1) << 3) | (col - 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    // 1-indexed row of a square index
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    // 1-indexed column of a square index
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), column(square));
+    }
+
+    // index of the lowest set square, only meaningful when the bitboard is not empty
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+}
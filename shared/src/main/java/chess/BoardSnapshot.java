@@ -0,0 +1,123 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * An immutable copy of one position: the pieces, the side to move and whether
+ * the game is over.
+ * <p>
+ * The pieces are kept as one byte per square, 0 for an empty square and
+ * otherwise one more than the piece's {@link ChessBoard#bitboardIndex}, so a
+ * snapshot is 64 bytes plus a few fields and is built in one pass over the
+ * board. Nothing in it can change once built, so one instance can be handed to
+ * any number of threads, kept as history or used as a cache key without
+ * copying or locking. {@link ChessGame#getSnapshot()} builds one per position.
+ */
+public final class BoardSnapshot {
+    private final byte[] squares;
+    private final ChessGame.TeamColor teamTurn;
+    private final boolean gameOver;
+    private final long key;
+
+    private BoardSnapshot(byte[] squares, ChessGame.TeamColor teamTurn, boolean gameOver, long key) {
+        this.squares = squares;
+        this.teamTurn = teamTurn;
+        this.gameOver = gameOver;
+        this.key = key;
+    }
+
+    /**
+     * Copies a position
+     *
+     * @param board    the pieces, which are copied and may change afterwards
+     * @param teamTurn the side to move
+     * @param gameOver whether the game has ended
+     * @return a snapshot of the position
+     */
+    public static BoardSnapshot of(ChessBoard board, ChessGame.TeamColor teamTurn, boolean gameOver) {
+        byte[] squares = new byte[64];
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                squares[square] = (byte) (ChessBoard.bitboardIndex(piece.getTeamColor(), piece.getPieceType()) + 1);
+            }
+        }
+        return new BoardSnapshot(squares, teamTurn, gameOver, board.getZobristKey() ^ Zobrist.sideKey(teamTurn));
+    }
+
+    public ChessPiece getPiece(ChessPosition position) {
+        return getPiece(Bitboards.square(position));
+    }
+
+    /**
+     * @param square square index, see {@link Bitboards#square(ChessPosition)}
+     * @return the piece on the square, or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        int code = squares[square];
+        return code == 0 ? null : ChessPiece.byIndex(code - 1);
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return Zobrist key of the pieces and side to move, equal to the game's key for this position
+     */
+    public long getZobristKey() {
+        return key;
+    }
+
+    /**
+     * @return a new board holding this snapshot's pieces
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            if (squares[square] != 0) {
+                board.addPiece(square, getPiece(square));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Starts a new game from this position. The game has no draw history, so
+     * repetitions before the snapshot are not counted.
+     *
+     * @return a new game the caller owns
+     */
+    public ChessGame toGame() {
+        ChessGame game = new ChessGame(toBoard(), teamTurn);
+        game.setGameOver(gameOver);
+        return game;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardSnapshot that)) {
+            return false;
+        }
+        return key == that.key && teamTurn == that.teamTurn && gameOver == that.gameOver
+                && Arrays.equals(squares, that.squares);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key) * 31 + (gameOver ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "BoardSnapshot{" + Fen.write(toBoard()) + (teamTurn == ChessGame.TeamColor.WHITE ? " w" : " b")
+                + (gameOver ? ", game over" : "") + "}";
+    }
+}
@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -10,11 +9,44 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessBoard {
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
     private final ChessPiece[][] squares = new ChessPiece[8][8];
+
+    // bitboard mirror of squares: one occupancy word per color and piece type, plus one per color
+    private final transient long[] pieceBitboards = new long[12];
+    private final transient long[] colorBitboards = new long[2];
+    // Zobrist key of the pieces on the board, updated by XOR as pieces come and go
+    private transient long zobristKey;
+    // running evaluation totals per color, updated the same way: material, and material plus
+    // piece-square bonuses for the midgame and the endgame, see PieceSquareTables
+    private final transient int[] material = new int[2];
+    private final transient int[] midgameScores = new int[2];
+    private final transient int[] endgameScores = new int[2];
+    private transient int phase;
+    // Gson fills squares reflectively without going through addPiece, so the bitboards
+    // are rebuilt from squares the first time they are needed. Readers of a shared board
+    // may get there together, so the rebuild is locked and only published once complete
+    private transient volatile boolean indexed;
+
     public ChessBoard() {
         
     }
 
+    /**
+     * Creates a board holding the same pieces as another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = other.getPiece(square);
+            if (piece != null) {
+                addPiece(square, piece);
+            }
+        }
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -22,7 +54,44 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        addPiece(Bitboards.square(position), piece);
+    }
+
+    /**
+     * Adds a chess piece to the chessboard by square index
+     *
+     * @param square where to add the piece to, see {@link Bitboards}
+     * @param piece  the piece to add, or null to empty the square
+     */
+    public void addPiece(int square, ChessPiece piece) {
+        ensureIndexed();
+        int row = square >>> 3;
+        int col = square & 7;
+        long bit = Bitboards.bit(square);
+
+        ChessPiece old = squares[row][col];
+        if (old != null) {
+            pieceBitboards[bitboardIndex(old.getTeamColor(), old.getPieceType())] &= ~bit;
+            colorBitboards[old.getTeamColor().ordinal()] &= ~bit;
+            zobristKey ^= Zobrist.pieceKey(old, square);
+            count(old, square, -1);
+        }
+        squares[row][col] = piece;
+        if (piece != null) {
+            pieceBitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+            colorBitboards[piece.getTeamColor().ordinal()] |= bit;
+            zobristKey ^= Zobrist.pieceKey(piece, square);
+            count(piece, square, 1);
+        }
+    }
+
+    // adds a piece to the evaluation totals, or takes it away with sign -1
+    private void count(ChessPiece piece, int square, int sign) {
+        int color = piece.getTeamColor().ordinal();
+        material[color] += sign * PieceSquareTables.value(piece.getPieceType());
+        midgameScores[color] += sign * PieceSquareTables.midgameScore(piece, square);
+        endgameScores[color] += sign * PieceSquareTables.endgameScore(piece, square);
+        phase += sign * PieceSquareTables.phaseWeight(piece.getPieceType());
     }
 
     /**
@@ -36,6 +105,177 @@ public class ChessBoard {
         return squares[position.getRow() - 1][position.getColumn() - 1];
     }
 
+    /**
+     * Gets a chess piece on the chessboard by square index
+     *
+     * @param square the square index, see {@link Bitboards}
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    /**
+     * Gets the squares occupied by one kind of piece
+     *
+     * @param color the team the pieces belong to
+     * @param type  the type of the pieces
+     * @return a bitboard with one bit set for every matching piece
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        ensureIndexed();
+        return pieceBitboards[bitboardIndex(color, type)];
+    }
+
+    /**
+     * @param color the team to get the pieces of
+     * @return a bitboard with one bit set for every piece of the given team
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * @return a bitboard with one bit set for every occupied square
+     */
+    public long getOccupancy() {
+        ensureIndexed();
+        return colorBitboards[0] | colorBitboards[1];
+    }
+
+    /**
+     * Gets the square of a team's king without scanning the board. The king
+     * bitboard is kept up to date by addPiece, so this is a single bit scan.
+     *
+     * @param color the team whose king to find
+     * @return the king's square index, or -1 if that team has no king on the board
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        long king = getBitboard(color, ChessPiece.PieceType.KING);
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, see {@link Zobrist}
+     */
+    public long getZobristKey() {
+        ensureIndexed();
+        return zobristKey;
+    }
+
+    /**
+     * @param color the team to count for
+     * @return the team's material in centipawns, not counting the king
+     */
+    public int getMaterial(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return material[color.ordinal()];
+    }
+
+    /**
+     * @param color the team the pieces belong to
+     * @param type  the type of the pieces
+     * @return how many of those pieces are on the board
+     */
+    public int getPieceCount(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return Long.bitCount(getBitboard(color, type));
+    }
+
+    /**
+     * @return the game phase, from {@link PieceSquareTables#MAX_PHASE} with every piece
+     * on the board down to 0 with only kings and pawns
+     */
+    public int getPhase() {
+        ensureIndexed();
+        return Math.min(phase, PieceSquareTables.MAX_PHASE);
+    }
+
+    /**
+     * Gets the material and piece-square score of the position, blending the
+     * midgame and endgame totals by the game phase. The totals are kept up to
+     * date by addPiece, so this does not look at the pieces.
+     *
+     * @param team the team to score the position for
+     * @return score in centipawns, positive when the position favors team
+     */
+    public int getPieceSquareScore(ChessGame.TeamColor team) {
+        ensureIndexed();
+        int midgame = midgameScores[0] - midgameScores[1];
+        int endgame = endgameScores[0] - endgameScores[1];
+        int weight = getPhase();
+        int white = (midgame * weight + endgame * (PieceSquareTables.MAX_PHASE - weight)) / PieceSquareTables.MAX_PHASE;
+        return team == ChessGame.TeamColor.WHITE ? white : -white;
+    }
+
+    /**
+     * Checks whether neither side has the material left to checkmate: bare
+     * kings, a single bishop or knight, or only bishops that all stand on squares
+     * of one color
+     *
+     * @return true if the position is a dead draw
+     */
+    public boolean isInsufficientMaterial() {
+        ensureIndexed();
+        long heavy = 0L;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            heavy |= getBitboard(color, ChessPiece.PieceType.QUEEN) | getBitboard(color, ChessPiece.PieceType.ROOK)
+                    | getBitboard(color, ChessPiece.PieceType.PAWN);
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        long knights = getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+                | getBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        long bishops = getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                | getBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
+
+    // position of a color/type pair in pieceBitboards
+    public static int bitboardIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    private void ensureIndexed() {
+        if (!indexed) {
+            buildIndex();
+        }
+    }
+
+    private synchronized void buildIndex() {
+        if (indexed) {
+            return;
+        }
+        clearIndex();
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                ChessPiece piece = squares[i][j];
+                if (piece != null) {
+                    int square = Bitboards.square(i + 1, j + 1);
+                    pieceBitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] |= Bitboards.bit(square);
+                    colorBitboards[piece.getTeamColor().ordinal()] |= Bitboards.bit(square);
+                    zobristKey ^= Zobrist.pieceKey(piece, square);
+                    count(piece, square, 1);
+                }
+            }
+        }
+        indexed = true;
+    }
+
+    private void clearIndex() {
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        zobristKey = 0L;
+        Arrays.fill(material, 0);
+        Arrays.fill(midgameScores, 0);
+        Arrays.fill(endgameScores, 0);
+        phase = 0;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
@@ -47,32 +287,34 @@ public class ChessBoard {
                 squares[i][j] = null;
             }
         }
+        clearIndex();
+        indexed = true;
 
         // reset white pieces
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, col), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
 
         // reset black pieces
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(7, col), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
 
 
     }
@@ -83,12 +325,17 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        // different keys always mean different boards; equal keys still need the exact comparison
+        if (getZobristKey() != that.getZobristKey()) {
+            return false;
+        }
+        // the piece bitboards describe the whole board, so comparing them is enough
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(getZobristKey());
     }
 
     @Override
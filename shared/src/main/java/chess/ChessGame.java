@@ -1,20 +1,78 @@
 package chess;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * For a class that can manage a chess game, making moves on a board
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * One thread may change a game while any number of others query it. The
+ * queries (valid moves, check, mate, the draw rules and the status) never
+ * write to the board, and each one is read against a version counter that
+ * every change makes odd while it is under way and even when it is done. A
+ * query that overlaps a change simply runs again on the finished position, so
+ * readers take no lock and never see a half-made move. Changes themselves
+ * must come from one thread at a time.
  */
 public class ChessGame {
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(ChessGame.class, "version", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private ChessBoard board;
     private TeamColor teamTurn;
     private boolean isGameOver = false;
 
+    // plies since the last capture or pawn move, for the fifty-move rule
+    private int halfmoveClock = 0;
+    // move number as written in FEN, starting at 1 and going up after each black move
+    private int fullmoveNumber = 1;
+    // ring buffer of the keys of positions reached since the last capture or pawn move; earlier
+    // positions can never come back. Entry i lives at i & (length - 1), and only the entries from
+    // historyStart up to historyEnd are live, and at most the last HISTORY_MAX_CAPACITY of those are
+    // compared. These are saved with the game so draws are still found after it is stored and loaded again.
+    private static final int HISTORY_MIN_CAPACITY = 8;
+    private static final int HISTORY_MAX_CAPACITY = 128;
+    private long[] history;
+    private int historyStart = 0;
+    private int historyEnd = 0;
+
+    // undo stack for doMove/undoMove, stored as parallel arrays so applying a move allocates nothing
+    private static final int UNDO_CAPACITY = 256;
+    private transient int undoSize = 0;
+    private transient int[] undoFrom = new int[UNDO_CAPACITY];
+    private transient int[] undoTo = new int[UNDO_CAPACITY];
+    private transient ChessPiece[] undoMoved = new ChessPiece[UNDO_CAPACITY];
+    private transient ChessPiece[] undoCaptured = new ChessPiece[UNDO_CAPACITY];
+    private transient TeamColor[] undoTurn = new TeamColor[UNDO_CAPACITY];
+    private transient int[] undoHalfmoveClock = new int[UNDO_CAPACITY];
+    private transient int[] undoHistoryStart = new int[UNDO_CAPACITY];
+    private transient int[] undoHistoryEnd = new int[UNDO_CAPACITY];
+    // reserved for castling rights and the en passant square once those rules exist
+    private transient int[] undoCastling = new int[UNDO_CAPACITY];
+    private transient int[] undoEnPassant = new int[UNDO_CAPACITY];
+
+    // status of the last position it was asked for; replaced once the position's key no longer matches
+    private transient volatile GameStatus status;
+    // snapshot of the last position it was asked for, replaced the same way as status
+    private transient volatile BoardSnapshot snapshot;
+    // odd while a change to the position is being written, see beginWrite and read
+    private transient int version;
+
     public ChessGame() {
         // initialize an empty board and start with white team's turn
         board = new ChessBoard();
@@ -22,6 +80,33 @@ public class ChessGame {
         teamTurn = TeamColor.WHITE;
     }
 
+    // a game on a board that is used as given, for positions read from FEN
+    ChessGame(ChessBoard board, TeamColor teamTurn) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+    }
+
+    /**
+     * Creates an independent copy of a game, including its draw history, so the
+     * copy can be searched or changed without affecting the original. The copy
+     * is taken like any other read, so it may be made while another thread moves.
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        other.read(() -> {
+            board = new ChessBoard(other.board);
+            teamTurn = other.teamTurn;
+            isGameOver = other.isGameOver;
+            halfmoveClock = other.halfmoveClock;
+            fullmoveNumber = other.fullmoveNumber;
+            history = other.history == null ? null : other.history.clone();
+            historyStart = other.historyStart;
+            historyEnd = other.historyEnd;
+            return null;
+        });
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -35,7 +120,11 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
+        beginWrite();
         this.teamTurn = team;
+        status = null;
+        clearHistory();
+        endWrite();
     }
 
     @Override
@@ -44,12 +133,23 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return Objects.equals(board, chessGame.board) && teamTurn == chessGame.teamTurn;
+        return teamTurn == chessGame.teamTurn && Objects.equals(board, chessGame.board);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, teamTurn);
+        return Long.hashCode(getZobristKey());
+    }
+
+    /**
+     * Gets the Zobrist key of the current position: the board's key, XORed with
+     * {@link Zobrist#BLACK_TO_MOVE} when it is black's turn. Equal positions always
+     * have equal keys, so it can identify positions in caches and history.
+     *
+     * @return 64-bit key of the board and side to move
+     */
+    public long getZobristKey() {
+        return board.getZobristKey() ^ Zobrist.sideKey(teamTurn);
     }
 
     @Override
@@ -76,19 +176,14 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        ChessPiece piece = board.getPiece(startPosition);
-        if (piece == null) {
-            return new ArrayList<>();
-        }
-        Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new ArrayList<>();
-
-        for (ChessMove move : moves) {
-            if (isMoveValid(move)) {
-                validMoves.add(move);
+        return read(() -> {
+            ChessPiece piece = board.getPiece(startPosition);
+            if (piece == null) {
+                return new ArrayList<>();
             }
-        }
-        return validMoves;
+            LegalMoveGenerator generator = new LegalMoveGenerator(board, piece.getTeamColor());
+            return generator.legalMoves(Bitboards.square(startPosition));
+        });
     }
 
     /**
@@ -98,35 +193,294 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        if (piece == null) { // if no piece
-            throw new InvalidMoveException("No piece to move.");
+        MoveResult result = applyIfLegal(move, teamTurn);
+        if (!result.isApplied()) {
+            throw new InvalidMoveException(result.getMessage());
         }
-        if (piece.getTeamColor() != teamTurn) { // if wrong team's turn
-            throw new InvalidMoveException("Not this team's turn.");
+    }
+
+    /**
+     * Makes a move if it is legal, reporting why not otherwise instead of
+     * throwing. Checking and making the move take one pass: the move's
+     * destination is tested against the piece's legal target squares, without
+     * building a list of its moves.
+     *
+     * @param move chess move to make
+     * @return {@link MoveResult#APPLIED} if the move was made, or why it was not
+     */
+    public MoveResult tryMove(ChessMove move) {
+        return tryMove(move, teamTurn);
+    }
+
+    /**
+     * Makes a move for a team if it is legal and that team's turn
+     *
+     * @param move   chess move to make
+     * @param player the team asking to make the move
+     * @return {@link MoveResult#APPLIED} if the move was made, or why it was not
+     */
+    public MoveResult tryMove(ChessMove move, TeamColor player) {
+        if (isGameOver) {
+            return MoveResult.GAME_OVER;
         }
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-        if (!validMoves.contains(move)) { // if validMoves returns false
-            throw new InvalidMoveException("Move is invalid.");
+        if (player != teamTurn) {
+            return MoveResult.NOT_YOUR_TURN;
+        }
+        return applyIfLegal(move, player);
+    }
+
+    private MoveResult applyIfLegal(ChessMove move, TeamColor player) {
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        ChessPiece piece = board.getPiece(from);
+        if (piece == null) {
+            return MoveResult.NO_PIECE;
+        }
+        if (piece.getTeamColor() != player) {
+            return MoveResult.NOT_YOUR_TURN;
+        }
+        long targets = new LegalMoveGenerator(board, player).legalTargets(from);
+        if ((targets & Bitboards.bit(to)) == 0) {
+            return MoveResult.ILLEGAL;
+        }
+        // a pawn reaching the last row has to promote, and nothing else may
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        int lastRow = player == TeamColor.WHITE ? 8 : 1;
+        boolean promotes = piece.getPieceType() == ChessPiece.PieceType.PAWN && Bitboards.row(to) == lastRow;
+        if (promotes ? promotion == null || promotion == ChessPiece.PieceType.KING
+                || promotion == ChessPiece.PieceType.PAWN : promotion != null) {
+            return MoveResult.ILLEGAL;
+        }
+
+        applyMove(PackedMove.of(move));
+        status = null;
+        return MoveResult.APPLIED;
+    }
+
+    /**
+     * Gets check, checkmate and stalemate for both teams in the current position.
+     * The snapshot is built on the first call after the position changes and
+     * reused until it changes again.
+     *
+     * @return status of the current position
+     */
+    public GameStatus getStatus() {
+        GameStatus current = read(() -> {
+            long key = getZobristKey();
+            GameStatus memo = status;
+            return memo != null && memo.getKey() == key ? memo : new GameStatus(board, key);
+        });
+        status = current;
+        return current;
+    }
+
+    /**
+     * Gets an immutable copy of the current position that can be shared between
+     * threads. The copy is made on the first call after the position changes and
+     * reused until it changes again.
+     *
+     * @return snapshot of the pieces, the side to move and whether the game is over
+     */
+    public BoardSnapshot getSnapshot() {
+        BoardSnapshot current = read(() -> {
+            BoardSnapshot memo = snapshot;
+            return memo != null && memo.getZobristKey() == getZobristKey() && memo.isGameOver() == isGameOver
+                    ? memo : BoardSnapshot.of(board, teamTurn, isGameOver);
+        });
+        snapshot = current;
+        return current;
+    }
+
+    // the memoized status, if it still describes the current position
+    private GameStatus currentStatus() {
+        GameStatus current = status;
+        return current != null && current.getKey() == getZobristKey() ? current : null;
+    }
+
+    /**
+     * Adds every legal move of the team whose turn it is to a move list
+     *
+     * @param moves list to add the packed moves to, see {@link PackedMove}
+     */
+    public void legalMoves(MoveList moves) {
+        new LegalMoveGenerator(board, teamTurn).legalMoves(moves);
+    }
+
+    /**
+     * Applies a move without checking that it is legal and records what is needed
+     * to take it back with {@link #undoMove()}. Meant for search and analysis code
+     * that explores moves from validMoves and reverts them.
+     *
+     * @param move chess move to apply
+     */
+    public void doMove(ChessMove move) {
+        doMove(PackedMove.of(move));
+    }
+
+    /**
+     * Same as {@link #doMove(ChessMove)} for a packed move
+     *
+     * @param move packed chess move to apply, see {@link PackedMove}
+     */
+    public void doMove(int move) {
+        if (undoSize == undoFrom.length) {
+            growUndoStack();
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        undoFrom[undoSize] = from;
+        undoTo[undoSize] = to;
+        undoMoved[undoSize] = board.getPiece(from);
+        undoCaptured[undoSize] = board.getPiece(to);
+        undoTurn[undoSize] = teamTurn;
+        undoHalfmoveClock[undoSize] = halfmoveClock;
+        undoHistoryStart[undoSize] = historyStart;
+        undoHistoryEnd[undoSize] = historyEnd;
+        undoCastling[undoSize] = 0;
+        undoEnPassant[undoSize] = -1;
+        undoSize++;
+
+        applyMove(move);
+    }
+
+    /**
+     * Takes back the last move applied with {@link #doMove(ChessMove)}
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undoMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to undo.");
+        }
+        undoSize--;
+        beginWrite();
+        board.addPiece(undoFrom[undoSize], undoMoved[undoSize]);
+        board.addPiece(undoTo[undoSize], undoCaptured[undoSize]);
+        teamTurn = undoTurn[undoSize];
+        halfmoveClock = undoHalfmoveClock[undoSize];
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+        // clearing the history only moves its start, so the keys before it are still in place
+        historyStart = undoHistoryStart[undoSize];
+        historyEnd = undoHistoryEnd[undoSize];
+        endWrite();
+        // drop references so captured pieces are not kept alive by the stack
+        undoMoved[undoSize] = null;
+        undoCaptured[undoSize] = null;
+    }
+
+    private void applyMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece piece = board.getPiece(from);
+        // a capture or pawn move can never be undone over the board, so no earlier position can repeat
+        boolean irreversible = piece.getPieceType() == ChessPiece.PieceType.PAWN || board.getPiece(to) != null;
+        long key = getZobristKey();
+        beginWrite();
+
+        if (irreversible) {
+            halfmoveClock = 0;
+            historyStart = historyEnd;
+        } else {
+            halfmoveClock++;
+            pushHistory(key);
         }
 
         // if pawn, see if promotion, and add the promotion
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && PackedMove.isPromotion(move)) {
             int promotion = (piece.getTeamColor() == TeamColor.WHITE) ? 8 : 1;
-            if (move.getEndPosition().getRow() == promotion) {
-                ChessPiece promotionPiece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
-                board.addPiece(move.getEndPosition(), promotionPiece);
-                board.addPiece(move.getStartPosition(), null);
-                teamTurn = (teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-                return;
+            if (Bitboards.row(to) == promotion) {
+                piece = ChessPiece.of(piece.getTeamColor(), PackedMove.promotion(move));
             }
         }
-        // if not pawn, add the normal move
-        board.addPiece(move.getEndPosition(), piece);
-        board.addPiece(move.getStartPosition(), null);
+        board.addPiece(to, piece);
+        board.addPiece(from, null);
 
         // update teamTurn to be the other team's turn
-        teamTurn = (teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        teamTurn = getOpponentColor(teamTurn);
+        endWrite();
+    }
+
+    // marks the position as being changed; readers that overlap the change run again
+    private void beginWrite() {
+        VERSION.setOpaque(this, version + 1);
+        // keep the writes that follow from becoming visible before the odd version
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        VERSION.setRelease(this, version + 1);
+    }
+
+    /**
+     * Runs a query that only reads the position, repeating it until it completes
+     * without a change overlapping it. A query that overlapped a change may have
+     * seen a half-made move and failed on it, so its exception is only passed on
+     * when the position did not change underneath it.
+     */
+    <T> T read(Supplier<T> query) {
+        while (true) {
+            int before = (int) VERSION.getAcquire(this);
+            if ((before & 1) == 0) {
+                try {
+                    T result = query.get();
+                    VarHandle.acquireFence();
+                    if ((int) VERSION.getOpaque(this) == before) {
+                        return result;
+                    }
+                } catch (RuntimeException e) {
+                    VarHandle.acquireFence();
+                    if ((int) VERSION.getOpaque(this) == before) {
+                        throw e;
+                    }
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void pushHistory(long key) {
+        // undoMove can move the start and end back to any state on the undo stack, so a key is
+        // only overwritten once neither the new position nor the oldest undoable one compares it
+        int oldest = Math.max(historyStart, historyEnd + 1 - HISTORY_MAX_CAPACITY);
+        if (undoSize > 0) {
+            oldest = Math.min(oldest, Math.max(undoHistoryStart[0], undoHistoryEnd[0] - HISTORY_MAX_CAPACITY));
+        }
+        if (history == null) {
+            history = new long[HISTORY_MIN_CAPACITY];
+        } else if (historyEnd + 1 - oldest > history.length) {
+            // re-place every stored key, since each one's slot depends on the length
+            long[] grown = new long[history.length * 2];
+            for (int i = Math.max(0, historyEnd - history.length); i < historyEnd; i++) {
+                grown[i & (grown.length - 1)] = history[i & (history.length - 1)];
+            }
+            history = grown;
+        }
+        history[historyEnd & (history.length - 1)] = key;
+        historyEnd++;
+    }
+
+    private void clearHistory() {
+        halfmoveClock = 0;
+        historyStart = historyEnd;
+    }
+
+    private void growUndoStack() {
+        int capacity = undoFrom.length * 2;
+        undoFrom = Arrays.copyOf(undoFrom, capacity);
+        undoTo = Arrays.copyOf(undoTo, capacity);
+        undoMoved = Arrays.copyOf(undoMoved, capacity);
+        undoCaptured = Arrays.copyOf(undoCaptured, capacity);
+        undoTurn = Arrays.copyOf(undoTurn, capacity);
+        undoHalfmoveClock = Arrays.copyOf(undoHalfmoveClock, capacity);
+        undoHistoryStart = Arrays.copyOf(undoHistoryStart, capacity);
+        undoHistoryEnd = Arrays.copyOf(undoHistoryEnd, capacity);
+        undoCastling = Arrays.copyOf(undoCastling, capacity);
+        undoEnPassant = Arrays.copyOf(undoEnPassant, capacity);
     }
 
     /**
@@ -136,10 +490,17 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = getKingPosition(teamColor);
-        TeamColor opponent = getOpponentColor(teamColor);
-
-        return isSquareAttacked(kingPosition, opponent);
+        return read(() -> {
+            GameStatus current = currentStatus();
+            if (current != null) {
+                return current.isInCheck(teamColor);
+            }
+            int kingSquare = board.getKingSquare(teamColor);
+            if (kingSquare < 0) { // no king on the board, so nothing can be in check
+                return false;
+            }
+            return Attacks.isSquareAttacked(board, kingSquare, getOpponentColor(teamColor));
+        });
     }
 
     /**
@@ -149,7 +510,14 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        return isInCheck(teamColor) && !hasValidMoves(teamColor);
+        return read(() -> {
+            GameStatus current = currentStatus();
+            if (current != null) {
+                return current.isInCheckmate(teamColor);
+            }
+            LegalMoveGenerator generator = new LegalMoveGenerator(board, teamColor);
+            return generator.isInCheck() && !generator.hasLegalMoves();
+        });
     }
 
     /**
@@ -160,95 +528,149 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        return !isInCheck(teamColor) && !hasValidMoves(teamColor);
+        return read(() -> {
+            GameStatus current = currentStatus();
+            if (current != null) {
+                return current.isInStalemate(teamColor);
+            }
+            LegalMoveGenerator generator = new LegalMoveGenerator(board, teamColor);
+            return !generator.isInCheck() && !generator.hasLegalMoves();
+        });
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Determines if the current position has now come up for at least the third
+     * time with the same team to move. Only positions since the last capture or
+     * pawn move are compared, as no earlier position can come back.
      *
-     * @param board the new board to use
+     * @return True if the position has occurred three or more times
      */
-    public void setBoard(ChessBoard board) {
-        this.board = board;
+    public boolean isThreefoldRepetition() {
+        return read(this::isRepeated);
+    }
+
+    private boolean isRepeated() {
+        if (history == null) {
+            return false;
+        }
+        long key = getZobristKey();
+        int oldest = Math.max(historyStart, historyEnd - HISTORY_MAX_CAPACITY);
+        int occurrences = 1;
+        // the same team is to move every other ply
+        for (int i = historyEnd - 2; i >= oldest; i -= 2) {
+            if (history[i & (history.length - 1)] == key && ++occurrences == 3) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Gets the current chessboard
-     *
-     * @return the chessboard
+     * @return True if fifty moves by each team have passed without a capture or pawn move
      */
-    public ChessBoard getBoard() {
-        return board;
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
     }
 
-    public boolean isMoveValid(ChessMove move) {
-        ChessPiece start = board.getPiece(move.getStartPosition());
-        ChessPiece end = board.getPiece(move.getEndPosition());
-
-        board.addPiece(move.getEndPosition(), start);
-        board.addPiece(move.getStartPosition(), null);
+    /**
+     * @return True if neither team has enough material left to checkmate, see
+     * {@link ChessBoard#isInsufficientMaterial()}
+     */
+    public boolean isInsufficientMaterial() {
+        return read(() -> board.isInsufficientMaterial());
+    }
 
-        boolean valid = !isInCheck(start.getTeamColor());
+    /**
+     * Determines if the position is drawn by repetition, the fifty-move rule or
+     * insufficient material. Unlike the separate checks this reads the game
+     * directly instead of guarding against a concurrent move, so it is meant for
+     * search code working on a game no other thread can change.
+     *
+     * @return True if one of the draw rules applies
+     */
+    public boolean isDrawnByRule() {
+        return isRepeated() || isFiftyMoveRule() || board.isInsufficientMaterial();
+    }
 
-        board.addPiece(move.getStartPosition(), start);
-        board.addPiece(move.getEndPosition(), end);
+    /**
+     * @return the number of plies since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 
-        return valid;
+    // for positions read from FEN, which carry their own clock
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
     }
 
-    public ChessPosition getKingPosition(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(position);
+    /**
+     * @return the move number, starting at 1 and counting up after each of black's moves
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
 
-                if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    return position;
-                }
-            }
-        }
-        return null;
+    void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
     }
 
-    private boolean hasValidMoves(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(position);
+    /**
+     * Sets this game's chessboard with a given board
+     *
+     * @param board the new board to use
+     */
+    public void setBoard(ChessBoard board) {
+        beginWrite();
+        this.board = board;
+        status = null;
+        clearHistory();
+        endWrite();
+    }
 
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    if (!validMoves(position).isEmpty()) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    /**
+     * Gets the current chessboard
+     *
+     * @return the chessboard
+     */
+    public ChessBoard getBoard() {
+        return board;
     }
 
-    private boolean isSquareAttacked(ChessPosition position, TeamColor attackerColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                if (isAttacking(position, new ChessPosition(i, j), attackerColor)) {
-                    return true;
-                }
+    /**
+     * Determines if a move is legal for the piece on its start square, without
+     * making it on the board
+     *
+     * @param move chess move to check
+     * @return True if there is a piece to move and the move leaves its king out of check
+     */
+    public boolean isMoveValid(ChessMove move) {
+        return read(() -> {
+            int from = Bitboards.square(move.getStartPosition());
+            ChessPiece piece = board.getPiece(from);
+            if (piece == null) {
+                return false;
             }
-        }
-        return false;
+            long targets = new LegalMoveGenerator(board, piece.getTeamColor()).legalTargets(from);
+            return (targets & Bitboards.bit(Bitboards.square(move.getEndPosition()))) != 0;
+        });
     }
 
-    private boolean isAttacking(ChessPosition target, ChessPosition attackerPos, TeamColor attackerColor) {
-        ChessPiece piece = board.getPiece(attackerPos);
-        if (piece == null || piece.getTeamColor() != attackerColor) {
-            return false;
-        }
+    public ChessPosition getKingPosition(TeamColor teamColor) {
+        return read(() -> {
+            int kingSquare = board.getKingSquare(teamColor);
+            return kingSquare < 0 ? null : Bitboards.position(kingSquare);
+        });
+    }
 
-        for (ChessMove move : piece.pieceMoves(board, attackerPos)) {
-            if (move.getEndPosition().equals(target)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Determines if the given team has any valid move, stopping at the first one found
+     *
+     * @param teamColor which team to look for moves for
+     * @return True if at least one of the team's pieces can move
+     */
+    public boolean hasValidMoves(TeamColor teamColor) {
+        return read(() -> new LegalMoveGenerator(board, teamColor).hasLegalMoves());
     }
 
     private TeamColor getOpponentColor(TeamColor teamColor) {
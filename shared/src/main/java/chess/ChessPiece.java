@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Collection;
-import java.util.Objects;
 
 
 /**
@@ -14,11 +13,45 @@ public class ChessPiece {
     private final PieceType type;
     private final ChessGame.TeamColor pieceColor;
 
+    // one shared instance per color and type, indexed like ChessBoard's bitboards
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    // calculators hold no state, so every piece shares one of each
+    private static final PieceMovesCalculator KING_MOVES = new KingMovesCalculator();
+    private static final PieceMovesCalculator QUEEN_MOVES = new QueenMovesCalculator();
+    private static final PieceMovesCalculator BISHOP_MOVES = new BishopMovesCalculator();
+    private static final PieceMovesCalculator KNIGHT_MOVES = new KnightMovesCalculator();
+    private static final PieceMovesCalculator ROOK_MOVES = new RookMovesCalculator();
+    private static final PieceMovesCalculator PAWN_MOVES = new PawnMovesCalculator();
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[ChessBoard.bitboardIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.type = type;
         this.pieceColor = pieceColor;
     }
 
+    /**
+     * Gets the shared instance for a color and type. Pieces are immutable, so one
+     * instance of each can be used everywhere instead of allocating new ones.
+     *
+     * @return a piece equal to {@code new ChessPiece(pieceColor, type)}
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[ChessBoard.bitboardIndex(pieceColor, type)];
+    }
+
+    // the shared instance at a ChessBoard.bitboardIndex position
+    static ChessPiece byIndex(int index) {
+        return PIECES[index];
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -30,7 +63,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, pieceColor);
+        return 31 * type.hashCode() + pieceColor.hashCode();
     }
 
     @Override
@@ -77,12 +110,12 @@ public class ChessPiece {
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
         // delegates to PieceMovesCalculator
         PieceMovesCalculator moves = switch(getPieceType()) {
-            case QUEEN -> new QueenMovesCalculator();
-            case BISHOP -> new BishopMovesCalculator();
-            case KING -> new KingMovesCalculator();
-            case ROOK -> new RookMovesCalculator();
-            case PAWN -> new PawnMovesCalculator();
-            case KNIGHT -> new KnightMovesCalculator();
+            case QUEEN -> QUEEN_MOVES;
+            case BISHOP -> BISHOP_MOVES;
+            case KING -> KING_MOVES;
+            case ROOK -> ROOK_MOVES;
+            case PAWN -> PAWN_MOVES;
+            case KNIGHT -> KNIGHT_MOVES;
         };
 
         return moves.pieceMoves(board, myPosition);
@@ -0,0 +1,228 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, for example
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1}.
+ * <p>
+ * The game has no castling or en passant, so those fields are always written
+ * as "-", and any castling rights or en passant square that are read are
+ * checked for form and then ignored. Only the piece placement field is required
+ * when reading; the other fields fall back to white to move, a halfmove clock
+ * of 0 and move 1.
+ */
+public class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    /**
+     * Reads a position into a new game
+     *
+     * @param fen the FEN string
+     * @return a game with the position's pieces and side to move
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame parse(String fen) {
+        // fields are found by scanning for whitespace rather than with split, which compiles a pattern per call
+        String[] fields = new String[6];
+        int count = 0;
+        int i = 0;
+        while (true) {
+            while (i < fen.length() && Character.isWhitespace(fen.charAt(i))) {
+                i++;
+            }
+            if (i == fen.length()) {
+                break;
+            }
+            if (count == fields.length) {
+                throw new IllegalArgumentException("Too many FEN fields: " + fen);
+            }
+            int start = i;
+            while (i < fen.length() && !Character.isWhitespace(fen.charAt(i))) {
+                i++;
+            }
+            fields[count++] = fen.substring(start, i);
+        }
+        ChessBoard board = parseBoard(count == 0 ? "" : fields[0]);
+
+        ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+        if (count > 1) {
+            turn = switch (fields[1]) {
+                case "w" -> ChessGame.TeamColor.WHITE;
+                case "b" -> ChessGame.TeamColor.BLACK;
+                default -> throw new IllegalArgumentException("Invalid side to move: " + fields[1]);
+            };
+        }
+        ChessGame game = new ChessGame(board, turn);
+
+        if (count > 2 && !isCastlingRights(fields[2])) {
+            throw new IllegalArgumentException("Invalid castling rights: " + fields[2]);
+        }
+        if (count > 3 && !isEnPassantSquare(fields[3])) {
+            throw new IllegalArgumentException("Invalid en passant square: " + fields[3]);
+        }
+        for (int field = 4; field < count; field++) {
+            if (!isMoveCounter(fields[field])) {
+                throw new IllegalArgumentException("Invalid move counter: " + fields[field]);
+            }
+        }
+        if (count > 4) {
+            game.setHalfmoveClock(Integer.parseInt(fields[4]));
+        }
+        if (count > 5) {
+            game.setFullmoveNumber(Math.max(1, Integer.parseInt(fields[5])));
+        }
+        return game;
+    }
+
+    /**
+     * Reads the piece placement field of a FEN string into a new board
+     *
+     * @param placement ranks 8 to 1 separated by '/', e.g. {@code 8/8/8/4k3/8/8/8/4K3}
+     * @return a board holding the pieces
+     * @throws IllegalArgumentException if the placement is not valid
+     */
+    public static ChessBoard parseBoard(String placement) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (int i = 0; i < placement.length(); i++) {
+            char c = placement.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Invalid rank " + row + " in: " + placement);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                ChessPiece.PieceType type = pieceType(Character.toLowerCase(c));
+                if (type == null || col > 8) {
+                    throw new IllegalArgumentException("Invalid rank " + row + " in: " + placement);
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c)
+                        ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(Bitboards.square(row, col), ChessPiece.of(color, type));
+                col++;
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("Invalid rank " + row + " in: " + placement);
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("Placement does not cover 8 ranks: " + placement);
+        }
+        return board;
+    }
+
+    /**
+     * Writes a game as a full six field FEN string
+     *
+     * @param game the game to write
+     * @return the FEN string
+     */
+    public static String write(ChessGame game) {
+        StringBuilder fen = new StringBuilder(90);
+        writeBoard(game.getBoard(), fen);
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b");
+        fen.append(" - - ").append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+        return fen.toString();
+    }
+
+    /**
+     * Writes only the piece placement field for a board
+     *
+     * @param board the board to write
+     * @return the placement field
+     */
+    public static String write(ChessBoard board) {
+        StringBuilder fen = new StringBuilder(72);
+        writeBoard(board, fen);
+        return fen.toString();
+    }
+
+    private static void writeBoard(ChessBoard board, StringBuilder fen) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(Bitboards.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char c = pieceChar(piece.getPieceType());
+                fen.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+    }
+
+    // "-" or any of KQkq, each at most once and in that order
+    private static boolean isCastlingRights(String field) {
+        if (field.equals("-")) {
+            return true;
+        }
+        int next = 0;
+        for (int i = 0; i < field.length(); i++) {
+            int at = "KQkq".indexOf(field.charAt(i), next);
+            if (at < 0) {
+                return false;
+            }
+            next = at + 1;
+        }
+        return true;
+    }
+
+    // "-" or a square on the third or sixth rank
+    private static boolean isEnPassantSquare(String field) {
+        if (field.equals("-")) {
+            return true;
+        }
+        return field.length() == 2 && field.charAt(0) >= 'a' && field.charAt(0) <= 'h'
+                && (field.charAt(1) == '3' || field.charAt(1) == '6');
+    }
+
+    // one to four digits, so the value always fits in an int
+    private static boolean isMoveCounter(String field) {
+        if (field.isEmpty() || field.length() > 4) {
+            return false;
+        }
+        for (int i = 0; i < field.length(); i++) {
+            if (field.charAt(i) < '0' || field.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        return switch (c) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+    }
+
+    private static char pieceChar(ChessPiece.PieceType type) {
+        return switch (type) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+    }
+}
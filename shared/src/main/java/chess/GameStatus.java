@@ -0,0 +1,52 @@
+package chess;
+
+/**
+ * A snapshot of check, checkmate and stalemate for both teams in one position,
+ * along with how many legal moves each team has.
+ * <p>
+ * {@link ChessGame#getStatus()} builds it once per position and hands back the
+ * same instance until the position changes, so the status can be asked for as
+ * often as needed. It never changes once built, so it can be shared between
+ * threads.
+ */
+public class GameStatus {
+    private final long key;
+    private final boolean[] inCheck = new boolean[2];
+    private final int[] legalMoveCount = new int[2];
+
+    GameStatus(ChessBoard board, long key) {
+        this.key = key;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+            inCheck[color.ordinal()] = generator.isInCheck();
+            legalMoveCount[color.ordinal()] = generator.countLegalMoves();
+        }
+    }
+
+    /**
+     * @return Zobrist key of the board and side to move this status was built for
+     */
+    public long getKey() {
+        return key;
+    }
+
+    public boolean isInCheck(ChessGame.TeamColor teamColor) {
+        return inCheck[teamColor.ordinal()];
+    }
+
+    public boolean isInCheckmate(ChessGame.TeamColor teamColor) {
+        return isInCheck(teamColor) && legalMoveCount[teamColor.ordinal()] == 0;
+    }
+
+    public boolean isInStalemate(ChessGame.TeamColor teamColor) {
+        return !isInCheck(teamColor) && legalMoveCount[teamColor.ordinal()] == 0;
+    }
+
+    /**
+     * @param teamColor which team to count moves for
+     * @return number of legal moves, counting each promotion piece separately
+     */
+    public int getLegalMoveCount(ChessGame.TeamColor teamColor) {
+        return legalMoveCount[teamColor.ordinal()];
+    }
+}
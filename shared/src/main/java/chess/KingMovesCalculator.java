@@ -1,30 +1,13 @@
 package chess;
 
-import java.util.Collection;
-import java.util.ArrayList;
-
 public class KingMovesCalculator implements PieceMovesCalculator {
 
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        int[][] kingMoves = {
-                // possible king moves
-                {-1, -1}, {-1, 0}, {-1, 1},
-                {0, -1},           {0, 1},
-                {1, -1},  {1, 0},  {1, 1}
-        };
-
-        for (int[] move : kingMoves) {
-            int newRow = myPosition.getRow() + move[0];
-            int newCol = myPosition.getColumn() + move[1];
-
-            // checks if move is in bounds and valid (empty or occupied by an opponent piece) from MoveHelper class
-            if (MoveHelper.isInBounds(newRow, newCol)) {
-                ChessPosition newPosition = new ChessPosition(newRow, newCol);
-                MoveHelper.handleTargetSquare(board, myPosition, newPosition, board.getPiece(myPosition).getTeamColor(), validMoves);
-            }
-        }
-        return validMoves;
+    public void pieceMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece king = board.getPiece(square);
+        // one step in every direction onto an empty or enemy square
+        long targets = Attacks.kingAttacks(square)
+                & ~board.getOccupancy(king.getTeamColor());
+        MoveHelper.addMoves(square, targets, board.getOccupancy(), moves);
     }
-}
\ No newline at end of file
+}
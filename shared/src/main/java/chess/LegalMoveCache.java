@@ -0,0 +1,127 @@
+package chess;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of legal moves, keyed by the board's Zobrist key and the
+ * square of the piece. Many readers asking what a piece can do in the same
+ * position, such as observers of one game, then share a single generation.
+ * <p>
+ * The cache is split into independently locked segments, each evicting its
+ * least recently used entry once full, so concurrent readers rarely wait on
+ * each other. Returned collections are shared and cannot be modified.
+ */
+public class LegalMoveCache {
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxEntries the most (position, square) entries to keep before evicting
+     */
+    public LegalMoveCache(int maxEntries) {
+        if (maxEntries < SEGMENTS) {
+            throw new IllegalArgumentException("Cache must hold at least " + SEGMENTS + " entries.");
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxEntries / SEGMENTS);
+        }
+    }
+
+    /**
+     * Gets the valid moves for a piece, the same as {@link ChessGame#validMoves(ChessPosition)},
+     * generating them only if this position and square have not been seen recently
+     *
+     * @param game          the game to read the board from
+     * @param startPosition the piece to get valid moves for
+     * @return unmodifiable collection of valid moves, empty if there is no piece at startPosition
+     */
+    public Collection<ChessMove> validMoves(ChessGame game, ChessPosition startPosition) {
+        // validMoves does not depend on whose turn it is, so the board key alone identifies the answer.
+        // A key read while another thread is moving may be of no real position, but nothing is ever
+        // stored under such a key, so it can only miss.
+        int square = Bitboards.square(startPosition);
+        Key key = new Key(game.getBoard().getZobristKey(), square);
+        Collection<ChessMove> moves;
+        Segment segment = segment(key);
+        synchronized (segment) {
+            moves = segment.get(key);
+        }
+        if (moves != null) {
+            hits.increment();
+            return moves;
+        }
+
+        misses.increment();
+        // the key and the moves are read together, so the moves are stored under the position they
+        // came from even if the game moved on since the lookup. Generated outside the lock; two
+        // readers racing on the same miss just store equal results.
+        Generated generated = game.read(() -> new Generated(game.getBoard().getZobristKey(),
+                Collections.unmodifiableCollection(game.validMoves(startPosition))));
+        key = new Key(generated.boardKey(), square);
+        segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, generated.moves());
+        }
+        return generated.moves();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private Segment segment(Key key) {
+        return segments[(int) (key.boardKey() ^ key.square()) & (SEGMENTS - 1)];
+    }
+
+    private record Key(long boardKey, int square) {
+    }
+
+    private record Generated(long boardKey, Collection<ChessMove> moves) {
+    }
+
+    // access-ordered map that drops its least recently used entry once over capacity
+    private static class Segment extends LinkedHashMap<Key, Collection<ChessMove>> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Collection<ChessMove>> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * Generates only legal moves for one team on a board.
+ * <p>
+ * The constructor works out, once per position, which pieces give check and
+ * which friendly pieces are pinned to their king. A non-king piece may then only
+ * move onto the check mask (the checking piece or a square between it and the
+ * king), and a pinned piece only along its pin line. The king may only step onto
+ * squares that are not attacked once it has left its square. Every move comes
+ * out of those masks, so no move is ever tried on the board.
+ * <p>
+ * Unlike {@link PieceMovesCalculator}, the board is never changed, and a team
+ * without a king simply has no check or pin restrictions.
+ */
+public class LegalMoveGenerator {
+    private final ChessBoard board;
+    private final ChessGame.TeamColor color;
+    private final ChessGame.TeamColor opponent;
+    private final int kingSquare;
+    private final long own;
+    private final long enemy;
+    private final long occupied;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+
+    public LegalMoveGenerator(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.color = color;
+        this.opponent = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        this.kingSquare = board.getKingSquare(color);
+        this.own = board.getOccupancy(color);
+        this.enemy = board.getOccupancy(opponent);
+        this.occupied = own | enemy;
+
+        if (kingSquare < 0) {
+            checkers = 0L;
+            checkMask = Bitboards.ALL;
+            pinned = 0L;
+            return;
+        }
+
+        checkers = Attacks.attackersTo(board, kingSquare, opponent, occupied);
+        if (checkers == 0) {
+            checkMask = Bitboards.ALL;
+        } else if (Long.bitCount(checkers) == 1) {
+            // block the check or capture the checking piece
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Attacks.between(kingSquare, checker);
+        } else {
+            // double check: only the king can move
+            checkMask = Bitboards.EMPTY;
+        }
+
+        // an enemy slider aimed at the king through exactly one of our pieces pins that piece
+        long enemyQueens = board.getBitboard(opponent, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rookAttacks(kingSquare, 0L)
+                & (board.getBitboard(opponent, ChessPiece.PieceType.ROOK) | enemyQueens))
+                | (Attacks.bishopAttacks(kingSquare, 0L)
+                & (board.getBitboard(opponent, ChessPiece.PieceType.BISHOP) | enemyQueens));
+        long pins = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pins |= blockers;
+            }
+        }
+        pinned = pins;
+    }
+
+    /**
+     * @return true if the team is in check in this position
+     */
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * Gets the squares the piece on a square can legally move to
+     *
+     * @param square the square of one of this team's pieces
+     * @return a bitboard of legal destination squares
+     */
+    public long legalTargets(int square) {
+        ChessPiece piece = board.getPiece(square);
+        if (square == kingSquare) {
+            return kingTargets();
+        }
+        if (checkMask == 0) {
+            return 0L;
+        }
+
+        long targets;
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            targets = pawnTargets(square);
+        } else {
+            targets = Attacks.attacks(piece.getPieceType(), color, square, occupied) & ~own;
+        }
+        targets &= checkMask;
+        if ((pinned & Bitboards.bit(square)) != 0) {
+            targets &= Attacks.line(kingSquare, square);
+        }
+        return targets;
+    }
+
+    /**
+     * Adds the legal moves of the piece on a square to a move list
+     *
+     * @param square the square of one of this team's pieces
+     * @param moves  list to add the packed moves to, with one move per promotion piece for promoting pawns
+     */
+    public void legalMoves(int square, MoveList moves) {
+        long targets = legalTargets(square);
+        if (board.getPiece(square).getPieceType() == ChessPiece.PieceType.PAWN) {
+            MoveHelper.addPawnMoves(square, targets, enemy, color, moves);
+        } else {
+            MoveHelper.addMoves(square, targets, enemy, moves);
+        }
+    }
+
+    /**
+     * Adds every legal move of the team to a move list
+     *
+     * @param moves list to add the packed moves to
+     */
+    public void legalMoves(MoveList moves) {
+        long pieces = own;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            legalMoves(square, moves);
+        }
+    }
+
+    /**
+     * Gets the legal moves of the piece on a square as ChessMoves
+     *
+     * @param square the square of one of this team's pieces
+     * @return the legal moves, with one move per promotion piece for promoting pawns
+     */
+    public Collection<ChessMove> legalMoves(int square) {
+        MoveList moves = new MoveList(32);
+        legalMoves(square, moves);
+        return moves.toChessMoves();
+    }
+
+    /**
+     * Generates the team's legal moves one at a time, stopping as soon as the
+     * visitor asks to. Other pieces are visited before the king, since each king
+     * step has to be checked for attacks while other pieces only need masks.
+     *
+     * @param visitor receives each packed move and returns false to stop
+     * @return true if every move was visited, false if the visitor stopped early
+     */
+    public boolean forEachLegalMove(MoveVisitor visitor) {
+        long king = kingSquare < 0 ? 0L : Bitboards.bit(kingSquare);
+        long pieces = own & ~king;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long targets = legalTargets(square);
+            boolean pawn = board.getPiece(square).getPieceType() == ChessPiece.PieceType.PAWN;
+            while (targets != 0) {
+                int target = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (!visit(square, target, pawn, visitor)) {
+                    return false;
+                }
+            }
+        }
+        if (kingSquare < 0) {
+            return true;
+        }
+
+        // test each king step only when the visitor gets that far
+        long withoutKing = occupied & ~king;
+        long targets = Attacks.kingAttacks(kingSquare) & ~own;
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (!Attacks.isSquareAttacked(board, target, opponent, withoutKing)
+                    && !visit(kingSquare, target, false, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if any piece of the team has at least one legal move
+     */
+    public boolean hasLegalMoves() {
+        // stop at the first legal move found
+        return !forEachLegalMove(move -> false);
+    }
+
+    /**
+     * Counts the team's legal moves from the target masks, without building any moves
+     *
+     * @return number of legal moves, counting each promotion piece separately
+     */
+    public int countLegalMoves() {
+        long lastRow = color == ChessGame.TeamColor.WHITE ? 0xFF00000000000000L : 0xFFL;
+        int count = 0;
+        long pieces = own;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long targets = legalTargets(square);
+            count += Long.bitCount(targets);
+            if (board.getPiece(square).getPieceType() == ChessPiece.PieceType.PAWN) {
+                // three more moves for each square a pawn promotes on
+                count += 3 * Long.bitCount(targets & lastRow);
+            }
+        }
+        return count;
+    }
+
+    private boolean visit(int square, int target, boolean pawn, MoveVisitor visitor) {
+        boolean capture = (enemy & Bitboards.bit(target)) != 0;
+        int promotion = color == ChessGame.TeamColor.WHITE ? 8 : 1;
+        if (pawn && Bitboards.row(target) == promotion) {
+            return visitor.visit(PackedMove.encode(square, target, ChessPiece.PieceType.QUEEN, capture))
+                    && visitor.visit(PackedMove.encode(square, target, ChessPiece.PieceType.ROOK, capture))
+                    && visitor.visit(PackedMove.encode(square, target, ChessPiece.PieceType.BISHOP, capture))
+                    && visitor.visit(PackedMove.encode(square, target, ChessPiece.PieceType.KNIGHT, capture));
+        }
+        return visitor.visit(PackedMove.encode(square, target, null, capture));
+    }
+
+    private long kingTargets() {
+        long targets = Attacks.kingAttacks(kingSquare) & ~own;
+        // the king no longer blocks the rays of the pieces checking it once it steps away
+        long withoutKing = occupied & ~Bitboards.bit(kingSquare);
+        long safe = 0L;
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (!Attacks.isSquareAttacked(board, target, opponent, withoutKing)) {
+                safe |= Bitboards.bit(target);
+            }
+        }
+        return safe;
+    }
+
+    private long pawnTargets(int square) {
+        long targets = Attacks.pawnAttacks(color, square) & enemy;
+        int step = color == ChessGame.TeamColor.WHITE ? 8 : -8;
+        int forwardOne = square + step;
+        if (forwardOne >= 0 && forwardOne < 64 && (occupied & Bitboards.bit(forwardOne)) == 0) {
+            targets |= Bitboards.bit(forwardOne);
+            int startingRow = color == ChessGame.TeamColor.WHITE ? 2 : 7;
+            int forwardTwo = forwardOne + step;
+            if (Bitboards.row(square) == startingRow && (occupied & Bitboards.bit(forwardTwo)) == 0) {
+                targets |= Bitboards.bit(forwardTwo);
+            }
+        }
+        return targets;
+    }
+}
@@ -1,56 +1,38 @@
 package chess;
 
-import java.util.Collection;
-import java.util.ArrayList;
-
 public class MoveHelper {
     // checks if move is in the bounds of the 8x8 board
     public static boolean isInBounds(int row, int col) {
         return row >= 1 && row <= 8 && col >= 1 && col <= 8;
     }
 
-    public static boolean handleTargetSquare(ChessBoard board, ChessPosition myPosition,
-                                             ChessPosition newPosition, ChessGame.TeamColor teamColor,
-                                             Collection<ChessMove> validMoves) {
-        ChessPiece targetSquare = board.getPiece(newPosition);
-        // if move is empty square
-        if (targetSquare == null) {
-            validMoves.add(new ChessMove(myPosition, newPosition, null));
-            return true;
-        } else {
-            // if move is occupied by the other team
-            if (!targetSquare.getTeamColor().equals(teamColor)) {
-                validMoves.add(new ChessMove(myPosition, newPosition, null));
-            }
-            return false;
+    // adds a move from square to every square set in targets; targets never hold our own pieces,
+    // so any occupied target is a capture
+    public static void addMoves(int square, long targets, long occupied, MoveList moves) {
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(PackedMove.encode(square, target, null, (occupied & Bitboards.bit(target)) != 0));
         }
     }
 
-    // adds all moves in a given direction (all diagonal directions for bishop...) to validMoves
-    public static Collection<ChessMove> calculateDirectionalMoves(ChessBoard board, ChessPosition myPosition,
-                                                                  int[][] directions, ChessGame.TeamColor teamColor) {
-        Collection<ChessMove> validMoves = new ArrayList<>();
-
-        for (int[] direction : directions) {
-            int row = myPosition.getRow();
-            int col = myPosition.getColumn();
-
-            while (true) {
-                row += direction[0];
-                col += direction[1];
-
-                if (!isInBounds(row, col)) {
-                    break;
-                }
-
-                ChessPosition newPosition = new ChessPosition(row, col);
-
-                if (!handleTargetSquare(board, myPosition, newPosition, teamColor, validMoves)) {
-                    break;
-                }
+    // same as addMoves, but a pawn reaching its last row adds one move per promotion piece
+    public static void addPawnMoves(int square, long targets, long occupied, ChessGame.TeamColor teamColor,
+                                    MoveList moves) {
+        // pawns can promote at row 8 for white, and row 1 for black
+        int promotion = (teamColor == ChessGame.TeamColor.WHITE) ? 8 : 1;
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            boolean capture = (occupied & Bitboards.bit(target)) != 0;
+            if (Bitboards.row(target) == promotion) {
+                moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.QUEEN, capture));
+                moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.ROOK, capture));
+                moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.BISHOP, capture));
+                moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.KNIGHT, capture));
+            } else {
+                moves.add(PackedMove.encode(square, target, null, capture));
             }
         }
-
-        return validMoves;
     }
 }
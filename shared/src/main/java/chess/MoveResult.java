@@ -0,0 +1,30 @@
+package chess;
+
+/**
+ * The outcome of {@link ChessGame#tryMove}: either the move was made, or the
+ * reason it was turned down.
+ */
+public enum MoveResult {
+    APPLIED("Move made."),
+    GAME_OVER("The game is over."),
+    NOT_YOUR_TURN("Not this team's turn."),
+    NO_PIECE("No piece to move."),
+    ILLEGAL("Move is invalid.");
+
+    private final String message;
+
+    MoveResult(String message) {
+        this.message = message;
+    }
+
+    public boolean isApplied() {
+        return this == APPLIED;
+    }
+
+    /**
+     * @return a message describing the result, suitable to show a player
+     */
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,15 @@
+package chess;
+
+/**
+ * Receives legal moves one at a time from {@link LegalMoveGenerator#forEachLegalMove(MoveVisitor)}
+ */
+@FunctionalInterface
+public interface MoveVisitor {
+    /**
+     * Called for each legal move as it is generated
+     *
+     * @param move packed chess move, see {@link PackedMove}
+     * @return true to keep generating moves, false to stop
+     */
+    boolean visit(int move);
+}
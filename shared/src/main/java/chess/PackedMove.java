@@ -0,0 +1,64 @@
+package chess;
+
+/**
+ * Encodes a move in a single int so move generation does not allocate.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square (see {@link Bitboards}),
+ * bits 12-14 the promotion piece (0 for none, otherwise the PieceType ordinal + 1)
+ * and bit 15 is set when the move captures a piece. Moves are only turned into
+ * {@link ChessMove} objects at the API boundary.
+ */
+public class PackedMove {
+    public static final int NONE = 0;
+    public static final int CAPTURE = 1 << 15;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, boolean capture) {
+        int move = from | (to << 6);
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        if (capture) {
+            move |= CAPTURE;
+        }
+        return move;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    // promotion piece type, or null if the move is not a promotion
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> 12) & 7) != 0;
+    }
+
+    // start, end and promotion only; flags depend on the board and are left out
+    public static int of(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), false);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(Bitboards.position(from(move)), Bitboards.position(to(move)), promotion(move));
+    }
+
+    // true if both encode the same start, end and promotion, ignoring flags
+    public static boolean sameMove(int a, int b) {
+        return ((a ^ b) & 0x7FFF) == 0;
+    }
+}
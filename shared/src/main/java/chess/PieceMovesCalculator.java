@@ -3,5 +3,12 @@ package chess;
 import java.util.Collection;
 
 public interface PieceMovesCalculator {
-    Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition);
-}
\ No newline at end of file
+    // adds the packed moves of the piece on square to moves
+    void pieceMoves(ChessBoard board, int square, MoveList moves);
+
+    default Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        MoveList moves = new MoveList();
+        pieceMoves(board, Bitboards.square(myPosition), moves);
+        return moves.toChessMoves();
+    }
+}
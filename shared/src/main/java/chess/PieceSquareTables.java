@@ -0,0 +1,164 @@
+package chess;
+
+/**
+ * Material values and piece-square tables shared by {@link ChessBoard}'s running
+ * evaluation totals and the engine's evaluator.
+ * <p>
+ * Every piece has a midgame and an endgame score: its material value plus a
+ * bonus for its square. The tables are written as seen from white's side of
+ * the board, rank 8 first, and black uses the same table mirrored across the
+ * middle of the board. The two scores are blended by the game phase, which
+ * falls from {@link #MAX_PHASE} with every piece on the board to 0 when only
+ * kings and pawns are left.
+ */
+public class PieceSquareTables {
+    // indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+    public static final int MAX_PHASE = 24;
+
+    private static final int[][] MIDGAME = {
+            { // king: stay behind the pawns until the endgame
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20},
+            { // queen
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20},
+            { // bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20},
+            { // knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50},
+            { // rook
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0},
+            { // pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0},
+    };
+
+    // only the king and pawns change their minds once the pieces come off
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    // value plus bonus of each piece on each square, by bitboard index and square (bit 0 is row 1, column 1)
+    private static final int[][] MIDGAME_SCORES = new int[12][64];
+    private static final int[][] ENDGAME_SCORES = new int[12][64];
+
+    static {
+        for (int type = 0; type < 6; type++) {
+            int[] endgame = type == ChessPiece.PieceType.KING.ordinal() ? KING_ENDGAME
+                    : type == ChessPiece.PieceType.PAWN.ordinal() ? PAWN_ENDGAME : MIDGAME[type];
+            for (int square = 0; square < 64; square++) {
+                // the tables list rank 8 first, and a black piece reads white's table mirrored
+                MIDGAME_SCORES[type][square] = VALUES[type] + MIDGAME[type][square ^ 56];
+                ENDGAME_SCORES[type][square] = VALUES[type] + endgame[square ^ 56];
+                MIDGAME_SCORES[6 + type][square] = VALUES[type] + MIDGAME[type][square];
+                ENDGAME_SCORES[6 + type][square] = VALUES[type] + endgame[square];
+            }
+        }
+    }
+
+    /**
+     * @return material value of a piece type in centipawns
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * @return how much a piece type counts towards the game phase
+     */
+    public static int phaseWeight(ChessPiece.PieceType type) {
+        return PHASE_WEIGHTS[type.ordinal()];
+    }
+
+    public static int midgameScore(ChessPiece piece, int square) {
+        return MIDGAME_SCORES[ChessBoard.bitboardIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    public static int endgameScore(ChessPiece piece, int square) {
+        return ENDGAME_SCORES[ChessBoard.bitboardIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @return a copy of the material values, indexed by PieceType ordinal
+     */
+    public static int[] values() {
+        return VALUES.clone();
+    }
+
+    /**
+     * @return a copy of the midgame tables, indexed by PieceType ordinal, rank 8 first
+     */
+    public static int[][] midgameTables() {
+        int[][] copy = new int[6][];
+        for (int type = 0; type < 6; type++) {
+            copy[type] = MIDGAME[type].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * @return a copy of the endgame tables, indexed by PieceType ordinal, rank 8 first
+     */
+    public static int[][] endgameTables() {
+        int[][] copy = midgameTables();
+        copy[ChessPiece.PieceType.KING.ordinal()] = KING_ENDGAME.clone();
+        copy[ChessPiece.PieceType.PAWN.ordinal()] = PAWN_ENDGAME.clone();
+        return copy;
+    }
+}
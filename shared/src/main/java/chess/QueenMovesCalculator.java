@@ -1,18 +1,13 @@
 package chess;
 
-import java.util.Collection;
-
 public class QueenMovesCalculator implements PieceMovesCalculator {
-    private static final int[][] DIRECTIONS = {
-            // all possible directions for queen movement
-            {-1, -1}, {-1, 0}, {-1, 1},
-            {0, -1},           {0, 1},
-            {1, -1},  {1, 0},  {1, 1}
-    };
 
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        ChessPiece queen = board.getPiece(myPosition);
-        return MoveHelper.calculateDirectionalMoves(board, myPosition, DIRECTIONS, queen.getTeamColor());
+    public void pieceMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece queen = board.getPiece(square);
+        // a queen attacks the union of the rook and bishop rays
+        long targets = Attacks.queenAttacks(square, board.getOccupancy())
+                & ~board.getOccupancy(queen.getTeamColor());
+        MoveHelper.addMoves(square, targets, board.getOccupancy(), moves);
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,13 @@
 package chess;
 
-import java.util.Collection;
-
 public class RookMovesCalculator implements PieceMovesCalculator {
-    private static final int[][] DIRECTIONS = {
-            // all possible directions for rook movement
-            {0, 1}, {0, -1},
-            {1, 0}, {-1, 0}
-    };
 
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        ChessPiece rook = board.getPiece(myPosition);
-        return MoveHelper.calculateDirectionalMoves(board, myPosition, DIRECTIONS, rook.getTeamColor());
+    public void pieceMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece rook = board.getPiece(square);
+        // rank and file rays from the magic table, minus our own pieces
+        long targets = Attacks.rookAttacks(square, board.getOccupancy())
+                & ~board.getOccupancy(rook.getTeamColor());
+        MoveHelper.addMoves(square, targets, board.getOccupancy(), moves);
     }
-}
\ No newline at end of file
+}
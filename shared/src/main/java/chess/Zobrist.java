@@ -0,0 +1,59 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of positions.
+ * <p>
+ * A position's key is the XOR of one key per (piece, square) pair on the board,
+ * plus {@link #BLACK_TO_MOVE} when black is to move. Adding or removing a piece
+ * is a single XOR, so the board can keep its key up to date as it changes.
+ * The keys come from a fixed seed so they are identical in every process and
+ * can be stored alongside games.
+ */
+public class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    public static final long BLACK_TO_MOVE;
+    // reserved for castling rights and the en passant file once those rules exist
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+
+    private static long seed = 0x9E3779B97F4A7C15L;
+
+    static {
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = nextKey();
+            }
+        }
+        BLACK_TO_MOVE = nextKey();
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = nextKey();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = nextKey();
+        }
+    }
+
+    public static long pieceKey(ChessPiece piece, int square) {
+        return PIECE_KEYS[ChessBoard.bitboardIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    public static long sideKey(ChessGame.TeamColor teamTurn) {
+        return teamTurn == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    public static long castlingKey(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    public static long enPassantKey(int column) {
+        return EN_PASSANT_KEYS[column - 1];
+    }
+
+    // splitmix64
+    private static long nextKey() {
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
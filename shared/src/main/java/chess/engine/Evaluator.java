@@ -0,0 +1,212 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Static evaluation of a position from material and piece-square tables.
+ * <p>
+ * Scores are in centipawns from the point of view of the given team, so a
+ * positive score is good for that team. Every piece has a value and a bonus for
+ * its square from a midgame table and from an endgame table, and the two totals
+ * are blended by the game phase (see {@link ChessBoard#getPhase()}). The tables
+ * are written as seen from white's side of the board, rank 8 first, and black
+ * uses the same table mirrored across the middle of the board.
+ * <p>
+ * With the default weights of {@link PieceSquareTables} the evaluator reads the
+ * totals that {@link ChessBoard} keeps up to date as pieces move, so it costs
+ * the same however many pieces are on the board. Other weights, such as those
+ * fitted to real games with {@link Tuner} and saved to and loaded from a plain
+ * text file, are scored the same way by walking the pieces.
+ */
+public class Evaluator {
+    private static final String[] NAMES = {"king", "queen", "bishop", "knight", "rook", "pawn"};
+
+    // true when the weights are the board's own tables, so its running totals can be used
+    private final boolean incremental;
+    private final int[] pieceValues;
+    private final int[][] midgameTables;
+    private final int[][] endgameTables;
+    // value plus bonus of each piece on each square for white, by square index (bit 0 is row 1, column 1)
+    private final int[][] midgameScores = new int[6][64];
+    private final int[][] endgameScores = new int[6][64];
+
+    public Evaluator() {
+        this(PieceSquareTables.values(), PieceSquareTables.midgameTables(), PieceSquareTables.endgameTables());
+    }
+
+    /**
+     * Uses the same tables in the midgame and the endgame
+     *
+     * @param pieceValues material value of each piece type, indexed by PieceType ordinal
+     * @param tables      bonus for each piece type on each square, as seen from white's side with rank 8 first
+     */
+    public Evaluator(int[] pieceValues, int[][] tables) {
+        this(pieceValues, tables, tables);
+    }
+
+    /**
+     * @param pieceValues   material value of each piece type, indexed by PieceType ordinal
+     * @param midgameTables bonus for each piece type on each square with every piece on the board,
+     *                      as seen from white's side with rank 8 first
+     * @param endgameTables the same once only kings and pawns are left
+     */
+    public Evaluator(int[] pieceValues, int[][] midgameTables, int[][] endgameTables) {
+        if (pieceValues.length != 6 || midgameTables.length != 6 || endgameTables.length != 6) {
+            throw new IllegalArgumentException("Expected values and tables for 6 piece types");
+        }
+        this.pieceValues = pieceValues.clone();
+        this.midgameTables = copy(midgameTables);
+        this.endgameTables = copy(endgameTables);
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // the tables list rank 8 first
+                midgameScores[type][square] = pieceValues[type] + midgameTables[type][square ^ 56];
+                endgameScores[type][square] = pieceValues[type] + endgameTables[type][square ^ 56];
+            }
+        }
+        this.incremental = Arrays.equals(this.pieceValues, PieceSquareTables.values())
+                && Arrays.deepEquals(this.midgameTables, PieceSquareTables.midgameTables())
+                && Arrays.deepEquals(this.endgameTables, PieceSquareTables.endgameTables());
+    }
+
+    /**
+     * Reads weights written by {@link #save}. A file with a single set of tables,
+     * as written before the endgame tables were added, uses them in both phases.
+     *
+     * @param path the weights file
+     * @return an evaluator using the weights
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file does not hold 6 piece values and 12 or 6 tables
+     */
+    public static Evaluator load(Path path) throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            for (String number : line.trim().split("\\s+")) {
+                numbers.add(Integer.parseInt(number));
+            }
+        }
+        if (numbers.size() != 6 + 12 * 64 && numbers.size() != 6 + 6 * 64) {
+            throw new IllegalArgumentException("Expected " + (6 + 12 * 64) + " weights in " + path);
+        }
+        int[] values = new int[6];
+        int[][] tables = new int[numbers.size() / 64][64];
+        for (int i = 0; i < numbers.size(); i++) {
+            if (i < 6) {
+                values[i] = numbers.get(i);
+            } else {
+                tables[(i - 6) / 64][(i - 6) % 64] = numbers.get(i);
+            }
+        }
+        int[][] midgame = Arrays.copyOfRange(tables, 0, 6);
+        return new Evaluator(values, midgame, tables.length == 12 ? Arrays.copyOfRange(tables, 6, 12) : midgame);
+    }
+
+    /**
+     * Writes the weights as text, the piece values first and then one table per
+     * piece type for the midgame followed by one for the endgame, eight squares
+     * to a line
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        StringBuilder text = new StringBuilder("# piece values: king queen bishop knight rook pawn\n");
+        for (int value : pieceValues) {
+            text.append(value).append(' ');
+        }
+        text.setLength(text.length() - 1);
+        text.append('\n');
+        appendTables(text, midgameTables, "midgame");
+        appendTables(text, endgameTables, "endgame");
+        Files.writeString(path, text);
+    }
+
+    private static void appendTables(StringBuilder text, int[][] tables, String phase) {
+        for (int type = 0; type < 6; type++) {
+            text.append("# ").append(NAMES[type]).append(' ').append(phase).append(", rank 8 first\n");
+            for (int square = 0; square < 64; square++) {
+                text.append(tables[type][square]).append(square % 8 == 7 ? '\n' : ' ');
+            }
+        }
+    }
+
+    public int[] getPieceValues() {
+        return pieceValues.clone();
+    }
+
+    public int[][] getMidgameTables() {
+        return copy(midgameTables);
+    }
+
+    public int[][] getEndgameTables() {
+        return copy(endgameTables);
+    }
+
+    private static int[][] copy(int[][] tables) {
+        int[][] copy = new int[6][];
+        for (int type = 0; type < 6; type++) {
+            if (tables[type].length != 64) {
+                throw new IllegalArgumentException("Expected 64 squares in table " + type);
+            }
+            copy[type] = tables[type].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * @param board the board to evaluate
+     * @param team  the team to score the position for
+     * @return score in centipawns, positive when the position favors team
+     */
+    public int evaluate(ChessBoard board, ChessGame.TeamColor team) {
+        if (incremental) {
+            return board.getPieceSquareScore(team);
+        }
+        int midgame = 0;
+        int endgame = 0;
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            int[] midgameScore = midgameScores[type.ordinal()];
+            int[] endgameScore = endgameScores[type.ordinal()];
+            long pieces = board.getBitboard(ChessGame.TeamColor.WHITE, type);
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                midgame += midgameScore[square];
+                endgame += endgameScore[square];
+                pieces &= pieces - 1;
+            }
+            pieces = board.getBitboard(ChessGame.TeamColor.BLACK, type);
+            while (pieces != 0) {
+                // a black piece scores as a white one on the square mirrored across the board
+                int square = Long.numberOfTrailingZeros(pieces) ^ 56;
+                midgame -= midgameScore[square];
+                endgame -= endgameScore[square];
+                pieces &= pieces - 1;
+            }
+        }
+        // blended the same way as ChessBoard's running totals
+        int phase = board.getPhase();
+        int white = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return team == ChessGame.TeamColor.WHITE ? white : -white;
+    }
+
+    /**
+     * @param type a piece type
+     * @return the default material value of the piece type in centipawns, as used to order moves
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return PieceSquareTables.value(type);
+    }
+}
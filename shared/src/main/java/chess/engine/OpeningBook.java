@@ -0,0 +1,164 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.LegalMoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A read-only opening book backed by a memory-mapped file.
+ * <p>
+ * The file is a 16 byte header followed by 16 byte records of (position key,
+ * move, weight), sorted by key, then by weight from highest to lowest. Keys
+ * are {@link ChessGame#getZobristKey()} values, so a book stays valid only as
+ * long as the Zobrist keys do. Positions are found by binary search straight
+ * over the mapped bytes, so opening a book reads nothing up front, and every
+ * process that opens the same file shares its pages through the OS page cache.
+ * Books are written by {@link OpeningBookBuilder} and can hold up to about 134
+ * million records, the most that fits in a single 2 GB mapping.
+ * <p>
+ * Lookups only use absolute reads of the buffer, so one book can be used by
+ * many threads at once.
+ */
+public class OpeningBook {
+    static final long MAGIC = 0x43484553_53424B31L; // "CHESSBK1"
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    /**
+     * A book move and how often it was played
+     *
+     * @param move   packed move, see {@link PackedMove}
+     * @param weight relative frequency of the move
+     */
+    public record Entry(int move, int weight) {
+    }
+
+    private final ByteBuffer buffer;
+    private final long size;
+
+    private OpeningBook(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an opening book file.");
+        }
+        size = buffer.getLong(8);
+        if (HEADER_BYTES + size * RECORD_BYTES != buffer.capacity()) {
+            throw new IllegalArgumentException("Opening book file is truncated.");
+        }
+    }
+
+    /**
+     * Maps a book file into memory
+     *
+     * @param path the book file
+     * @return the opened book
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer.order(ByteOrder.BIG_ENDIAN));
+        }
+    }
+
+    /**
+     * @return number of (position, move) records in the book
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets every book move for a position
+     *
+     * @param key Zobrist key of the position
+     * @return the book moves, most played first, or an empty list if the position is not in the book
+     */
+    public List<Entry> lookup(long key) {
+        List<Entry> entries = new ArrayList<>();
+        for (long i = firstRecord(key); i < size && keyAt(i) == key; i++) {
+            entries.add(new Entry(moveAt(i), weightAt(i)));
+        }
+        return entries;
+    }
+
+    /**
+     * Picks a book move for the side to move, at random in proportion to the
+     * weights. Moves that are not legal in the game, which can only happen on a
+     * key collision, are never picked.
+     *
+     * @param game the game to pick a move in
+     * @return a packed legal move, or {@link PackedMove#NONE} if the position is not in the book
+     */
+    public int pickMove(ChessGame game) {
+        List<Entry> entries = lookup(game.getZobristKey());
+        if (entries.isEmpty()) {
+            return PackedMove.NONE;
+        }
+        MoveList legal = new MoveList();
+        new LegalMoveGenerator(game.getBoard(), game.getTeamTurn()).legalMoves(legal);
+        long total = 0;
+        for (Entry entry : entries) {
+            if (legal.contains(entry.move())) {
+                total += entry.weight();
+            }
+        }
+        if (total == 0) {
+            return PackedMove.NONE;
+        }
+        long pick = ThreadLocalRandom.current().nextLong(total);
+        for (Entry entry : entries) {
+            if (legal.contains(entry.move())) {
+                pick -= entry.weight();
+                if (pick < 0) {
+                    return entry.move();
+                }
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    // index of the first record whose key is not below key, comparing keys as unsigned
+    private long firstRecord(long key) {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(long record) {
+        return buffer.getLong(offset(record));
+    }
+
+    private int moveAt(long record) {
+        return buffer.getInt(offset(record) + 8);
+    }
+
+    private int weightAt(long record) {
+        return buffer.getInt(offset(record) + 12);
+    }
+
+    private static int offset(long record) {
+        return (int) (HEADER_BYTES + record * RECORD_BYTES);
+    }
+}
@@ -0,0 +1,335 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.LegalMoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles games into an {@link OpeningBook} file.
+ * <p>
+ * Games can be given as PGN, with moves in standard algebraic notation, or as
+ * plain move lists with one game per line in coordinate notation such as
+ * {@code e2e4 e7e5 g1f3}. PGN tags, comments, variations, move numbers and
+ * annotation symbols are skipped. Each move from the first plies of every
+ * game is counted once for the position it was played in. A game stops being
+ * read at its first move that cannot be played here, such as castling.
+ * <p>
+ * Usage: {@code OpeningBookBuilder <output> <input>... [--plies N]}
+ */
+public class OpeningBookBuilder {
+    public static final int DEFAULT_MAX_PLIES = 20;
+
+    private final int maxPlies;
+    // position key -> (move -> times played)
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+    private int games;
+    private int truncatedGames;
+
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Adds one game
+     *
+     * @param moves the game's moves, in coordinate or standard algebraic notation
+     * @return number of moves added to the book
+     */
+    public int addGame(List<String> moves) {
+        if (moves.isEmpty()) {
+            return 0;
+        }
+        games++;
+        ChessGame game = new ChessGame();
+        int plies = 0;
+        for (String token : moves) {
+            if (plies == maxPlies) {
+                break;
+            }
+            int move = parseMove(game, token);
+            if (move == PackedMove.NONE) {
+                truncatedGames++;
+                break;
+            }
+            counts.computeIfAbsent(game.getZobristKey(), key -> new HashMap<>())
+                    .merge(move & 0x7FFF, 1, Integer::sum);
+            game.doMove(move);
+            plies++;
+        }
+        return plies;
+    }
+
+    /**
+     * Adds every game from a PGN file or move list
+     *
+     * @param input the text to read
+     * @throws IOException if the text cannot be read
+     */
+    public void addCorpus(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        List<String> moves = new ArrayList<>();
+        int commentDepth = 0;
+        int variationDepth = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (commentDepth == 0 && variationDepth == 0 && line.startsWith("[")) {
+                // tags start the next PGN game
+                addGame(moves);
+                moves.clear();
+                continue;
+            }
+
+            List<String> tokens = new ArrayList<>();
+            StringBuilder token = new StringBuilder();
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (commentDepth > 0) {
+                    if (c == '}') {
+                        commentDepth = 0;
+                    }
+                } else if (c == '{') {
+                    commentDepth = 1;
+                } else if (c == ';' && variationDepth == 0) {
+                    break; // comment to the end of the line
+                } else if (c == '(') {
+                    variationDepth++;
+                } else if (c == ')') {
+                    variationDepth = Math.max(0, variationDepth - 1);
+                } else if (variationDepth > 0) {
+                    continue;
+                } else if (Character.isWhitespace(c)) {
+                    addToken(token, tokens);
+                } else {
+                    token.append(c);
+                }
+                if (c == '{' || c == '}' || c == '(' || c == ')') {
+                    addToken(token, tokens);
+                }
+            }
+            addToken(token, tokens);
+
+            boolean moveList = !tokens.isEmpty() && moves.isEmpty();
+            for (String t : tokens) {
+                if (isResult(t)) {
+                    addGame(moves);
+                    moves.clear();
+                    moveList = false;
+                } else {
+                    moves.add(t);
+                    moveList &= isCoordinateMove(t);
+                }
+            }
+            // a line of nothing but coordinate moves is a whole game
+            if (moveList) {
+                addGame(moves);
+                moves.clear();
+            }
+        }
+        addGame(moves);
+    }
+
+    /**
+     * Writes the book, replacing any existing file in one step so processes that
+     * already have the old book mapped keep reading it undisturbed
+     *
+     * @param path the book file to write
+     * @return number of records written
+     * @throws IOException if the file cannot be written
+     */
+    public long write(Path path) throws IOException {
+        List<Long> keys = new ArrayList<>(counts.keySet());
+        keys.sort(Long::compareUnsigned);
+        long records = 0;
+        for (Map<Integer, Integer> moves : counts.values()) {
+            records += moves.size();
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeLong(OpeningBook.MAGIC);
+            out.writeLong(records);
+            for (long key : keys) {
+                List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(counts.get(key).entrySet());
+                moves.sort((a, b) -> a.getValue().equals(b.getValue())
+                        ? Integer.compare(a.getKey(), b.getKey()) : Integer.compare(b.getValue(), a.getValue()));
+                for (Map.Entry<Integer, Integer> move : moves) {
+                    out.writeLong(key);
+                    out.writeInt(move.getKey());
+                    out.writeInt(move.getValue());
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return records;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getTruncatedGames() {
+        return truncatedGames;
+    }
+
+    public int getPositions() {
+        return counts.size();
+    }
+
+    /**
+     * Finds the legal move a token names in the current position
+     *
+     * @param game  the game to play the move in
+     * @param token a move such as {@code e2e4}, {@code e7e8q}, {@code Nf3}, {@code exd5} or {@code e8=Q+}
+     * @return the packed move, or {@link PackedMove#NONE} if the token names no legal move
+     */
+    public static int parseMove(ChessGame game, String token) {
+        MoveList legal = new MoveList();
+        new LegalMoveGenerator(game.getBoard(), game.getTeamTurn()).legalMoves(legal);
+        if (isCoordinateMove(token)) {
+            int from = Bitboards.square(token.charAt(1) - '0', token.charAt(0) - 'a' + 1);
+            int to = Bitboards.square(token.charAt(3) - '0', token.charAt(2) - 'a' + 1);
+            ChessPiece.PieceType promotion = token.length() == 5 ? pieceType(Character.toUpperCase(token.charAt(4))) : null;
+            int move = PackedMove.encode(from, to, promotion, false);
+            return legal.contains(move) ? move : PackedMove.NONE;
+        }
+        return parseSan(game, token, legal);
+    }
+
+    private static int parseSan(ChessGame game, String token, MoveList legal) {
+        String san = token.replaceAll("[+#!?]+$", "");
+        if (san.startsWith("O-O") || san.startsWith("0-0")) {
+            return PackedMove.NONE; // castling is not part of this game
+        }
+
+        ChessPiece.PieceType promotion = null;
+        int equals = san.indexOf('=');
+        if (equals >= 0 && equals + 1 < san.length()) {
+            promotion = pieceType(san.charAt(equals + 1));
+            san = san.substring(0, equals);
+        } else if (!san.isEmpty() && "QRBN".indexOf(san.charAt(san.length() - 1)) >= 0 && san.length() > 2) {
+            promotion = pieceType(san.charAt(san.length() - 1)); // e8Q
+            san = san.substring(0, san.length() - 1);
+        }
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (!san.isEmpty() && "KQRBN".indexOf(san.charAt(0)) >= 0) {
+            type = pieceType(san.charAt(0));
+            san = san.substring(1);
+        }
+        san = san.replace("x", "");
+        if (san.length() < 2 || san.length() > 4 || !isSquare(san, san.length() - 2)) {
+            return PackedMove.NONE;
+        }
+        int to = Bitboards.square(san.charAt(san.length() - 1) - '0', san.charAt(san.length() - 2) - 'a' + 1);
+        String hint = san.substring(0, san.length() - 2);
+
+        int found = PackedMove.NONE;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to
+                    || game.getBoard().getPiece(from).getPieceType() != type
+                    || PackedMove.promotion(move) != promotion
+                    || !matchesHint(from, hint)) {
+                continue;
+            }
+            if (found != PackedMove.NONE) {
+                return PackedMove.NONE; // ambiguous
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    // the file and/or rank given to tell apart two pieces that can reach the same square
+    private static boolean matchesHint(int from, String hint) {
+        for (int i = 0; i < hint.length(); i++) {
+            char c = hint.charAt(i);
+            if (c >= 'a' && c <= 'h' && Bitboards.column(from) != c - 'a' + 1) {
+                return false;
+            }
+            if (c >= '1' && c <= '8' && Bitboards.row(from) != c - '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCoordinateMove(String token) {
+        return (token.length() == 4 || (token.length() == 5 && "qrbn".indexOf(token.charAt(4)) >= 0))
+                && isSquare(token, 0) && isSquare(token, 2);
+    }
+
+    private static boolean isSquare(String text, int index) {
+        char file = text.charAt(index);
+        char rank = text.charAt(index + 1);
+        return file >= 'a' && file <= 'h' && rank >= '1' && rank <= '8';
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    // drops move numbers ("12.", "12...") and annotation glyphs ("$1") from a finished token
+    private static void addToken(StringBuilder token, List<String> tokens) {
+        String text = token.toString().replaceFirst("^\\d+\\.+", "");
+        token.setLength(0);
+        if (!text.isEmpty() && !text.startsWith("$")) {
+            tokens.add(text);
+        }
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        return switch (c) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> null;
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        int maxPlies = DEFAULT_MAX_PLIES;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--plies") && i + 1 < args.length) {
+                maxPlies = Integer.parseInt(args[++i]);
+            } else {
+                inputs.add(Path.of(args[i]));
+            }
+        }
+        if (args.length == 0 || inputs.isEmpty()) {
+            System.err.println("Usage: OpeningBookBuilder <output> <input>... [--plies N]");
+            System.exit(2);
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        for (Path input : inputs) {
+            try (Reader reader = Files.newBufferedReader(input)) {
+                builder.addCorpus(reader);
+            }
+        }
+        long records = builder.write(Path.of(args[0]));
+        System.out.printf("%d games (%d cut short), %d positions, %d records written to %s%n",
+                builder.getGames(), builder.getTruncatedGames(), builder.getPositions(), records, args[0]);
+    }
+}
@@ -0,0 +1,116 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Searches one position on several threads at once (lazy SMP).
+ * <p>
+ * Every thread runs an ordinary {@link Search} of the same root on its own copy
+ * of the game, and all of them share one {@link TranspositionTable}. The threads
+ * never talk to each other directly: results one thread stores let the others
+ * cut off or order moves sooner. Every other helper searches each iteration one
+ * ply deeper than the main thread, so the threads do not all walk the same tree
+ * in lockstep. The calling thread is the main thread; once it stops, the helpers
+ * are stopped and the deepest finished result wins.
+ * <p>
+ * Node limits are split between the threads, so the total work stays within the
+ * limits given. Call {@link #close()} to release the helper threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final Search[] workers;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+
+    /**
+     * @param threads number of threads to search with, including the calling thread
+     * @param table   table shared by every thread
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        this(threads, new Evaluator(), table);
+    }
+
+    public ParallelSearch(int threads, Evaluator evaluator, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallel search needs at least 1 thread.");
+        }
+        this.table = table;
+        workers = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Search(evaluator, table);
+        }
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int threads() {
+        return workers.length;
+    }
+
+    /**
+     * Searches the current position of a game on every thread
+     *
+     * @param game   the game to search; it is not changed
+     * @param limits when to stop searching; maxNodes is shared between the threads
+     * @return the result of the deepest finished iteration on any thread, with the
+     * node count summed over all threads
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        SearchLimits perThread = new SearchLimits(limits.maxDepth(),
+                Math.max(1, limits.maxNodes() / workers.length), limits.maxTimeMillis());
+
+        List<Future<SearchResult>> running = new ArrayList<>(workers.length - 1);
+        for (int i = 1; i < workers.length; i++) {
+            Search worker = workers[i];
+            ChessGame copy = new ChessGame(game);
+            int depthOffset = i % 2;
+            worker.clearStop();
+            running.add(helpers.submit(() -> worker.search(copy, perThread, depthOffset)));
+        }
+
+        workers[0].clearStop();
+        SearchResult best = workers[0].search(new ChessGame(game), perThread, 0);
+        for (int i = 1; i < workers.length; i++) {
+            workers[i].stop();
+        }
+
+        long nodes = best.nodes();
+        for (Future<SearchResult> future : running) {
+            SearchResult result = join(future);
+            nodes += result.nodes();
+            // only trust a helper over the main thread if it finished a deeper iteration
+            if (result.depth() > best.depth() && result.hasMove()) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.move(), best.score(), best.depth(), nodes);
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search threads.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed.", e.getCause());
+        }
+    }
+}
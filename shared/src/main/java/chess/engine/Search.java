@@ -0,0 +1,316 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.LegalMoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Finds a move for the side to move with iterative deepening alpha-beta search.
+ * <p>
+ * Each iteration searches one ply deeper than the last, trying the previous
+ * best move first, until a {@link SearchLimits} bound is reached. Leaves are
+ * resolved with a quiescence search over captures and promotions, so the
+ * evaluation is never taken in the middle of an exchange. Moves are played on
+ * the game with doMove/undoMove, which leaves the game as it was when the
+ * search returns. Results are kept in a {@link TranspositionTable}, which cuts
+ * off positions already searched deeply enough and supplies the best move to
+ * try first; several searches may share one table.
+ * <p>
+ * A Search keeps its buffers between calls and is not thread safe; use one per
+ * thread.
+ */
+public class Search {
+    public static final int MAX_PLY = 64;
+    public static final int MATE = 100_000;
+    private static final int INFINITY = MATE + 1;
+    // how often the time limit is read, as a mask over the node count
+    private static final int CHECK_INTERVAL = 1023;
+
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][256];
+
+    private ChessGame game;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean limited;
+    private volatile boolean stopRequested;
+    private boolean stopped;
+    private int rootBest;
+
+    public Search() {
+        this(new Evaluator(), new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    public Search(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches the current position of a game
+     *
+     * @param game   the game to search; it is changed during the search and restored before returning
+     * @param limits when to stop searching
+     * @return the best move found by the deepest finished iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        stopRequested = false;
+        table.newSearch();
+        return search(game, limits, 0);
+    }
+
+    // depthOffset makes every iteration after the first search that many plies deeper, so helper
+    // threads of a parallel search spread over different depths. A stop requested before this is
+    // called is kept, so a helper told to stop before it got going returns straight after depth 1.
+    SearchResult search(ChessGame game, SearchLimits limits, int depthOffset) {
+        this.game = game;
+        nodes = 0;
+        maxNodes = limits.maxNodes();
+        long now = System.nanoTime();
+        deadline = limits.maxTimeMillis() >= Long.MAX_VALUE / 1_000_000
+                ? Long.MAX_VALUE : now + limits.maxTimeMillis() * 1_000_000;
+        stopped = false;
+        limited = false;
+        rootBest = PackedMove.NONE;
+
+        SearchResult result = new SearchResult(PackedMove.NONE, 0, 0, 0);
+        int maxDepth = Math.min(limits.maxDepth(), MAX_PLY);
+        for (int iteration = 1; iteration <= maxDepth; iteration++) {
+            int depth = iteration == 1 ? 1 : Math.min(iteration + depthOffset, maxDepth);
+            int score = alphaBeta(depth, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+            result = new SearchResult(rootBest, score, depth, nodes);
+            // depth 1 always finishes, so the limits only apply from here on
+            limited = true;
+            if (Math.abs(score) >= MATE - MAX_PLY || rootBest == PackedMove.NONE || depth == maxDepth) {
+                break; // a forced mate or a position with no moves will not change with more depth
+            }
+        }
+        this.game = null;
+        return new SearchResult(result.move(), result.score(), result.depth(), nodes);
+    }
+
+    /**
+     * Asks a running search, from another thread, to stop and return its best move so far
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // clears a stop left over from an earlier search
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    private int alphaBeta(int depth, int ply, int alpha, int beta) {
+        if (checkLimits()) {
+            return 0;
+        }
+        // the game is this search's own, so the draw rules are read without the concurrent-reader guard
+        if (ply > 0 && game.isDrawnByRule()) {
+            return 0;
+        }
+
+        long key = game.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = TranspositionTable.move(entry);
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, turn);
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generator.legalMoves(moves);
+        if (moves.isEmpty()) {
+            // prefer the quickest mate, and the slowest when being mated
+            return generator.isInCheck() ? -MATE + ply : 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluator.evaluate(board, turn);
+        }
+        if (generator.isInCheck()) {
+            depth++; // never stand pat or drop into quiescence while in check
+        }
+        if (depth <= 0) {
+            return quiescence(ply, alpha, beta);
+        }
+
+        scoreMoves(board, moves, ply, ply == 0 && rootBest != PackedMove.NONE ? rootBest : hashMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            game.doMove(move);
+            int score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBest = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, depth, bound, toTable(best, ply), bestMove);
+        return best;
+    }
+
+    // mate scores count plies from the root, but the table is shared by every path to a
+    // position, so they are stored counted from the position itself
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private int quiescence(int ply, int alpha, int beta) {
+        if (checkLimits()) {
+            return 0;
+        }
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        int standPat = evaluator.evaluate(board, turn);
+        if (standPat >= beta || ply >= MAX_PLY) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        new LegalMoveGenerator(board, turn).legalMoves(moves);
+        // keep only captures and promotions
+        int tactical = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                moves.set(tactical++, move);
+            }
+        }
+        moves.truncate(tactical);
+
+        scoreMoves(board, moves, ply, PackedMove.NONE);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            game.doMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    // true once the search must stop; the clock is only read every few thousand nodes
+    private boolean checkLimits() {
+        nodes++;
+        if (stopped) {
+            return true;
+        }
+        if (limited && (stopRequested || nodes >= maxNodes
+                || ((nodes & CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // the hash move first, then captures of the most valuable piece by the least valuable attacker
+    private void scoreMoves(ChessBoard board, MoveList moves, int ply, int hashMove) {
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = 0;
+            if (hashMove != PackedMove.NONE && PackedMove.sameMove(move, hashMove)) {
+                score = 1 << 20;
+            } else {
+                if (PackedMove.isCapture(move)) {
+                    ChessPiece victim = board.getPiece(PackedMove.to(move));
+                    ChessPiece attacker = board.getPiece(PackedMove.from(move));
+                    score += 10 * Evaluator.pieceValue(victim.getPieceType())
+                            - Evaluator.pieceValue(attacker.getPieceType()) + 10_000;
+                }
+                if (PackedMove.isPromotion(move)) {
+                    score += Evaluator.pieceValue(PackedMove.promotion(move));
+                }
+            }
+            scores[i] = score;
+        }
+    }
+
+    // selection sort one step at a time, since a cutoff usually comes before the list is used up
+    private int nextMove(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            int score = scores[best];
+            moves.set(best, moves.get(index));
+            scores[best] = scores[index];
+            moves.set(index, move);
+            scores[index] = score;
+        }
+        return move;
+    }
+}
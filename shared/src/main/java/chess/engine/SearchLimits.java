@@ -0,0 +1,26 @@
+package chess.engine;
+
+/**
+ * Bounds on how much work one search may do. The search stops at whichever
+ * limit it reaches first, though it always finishes depth 1 so it has a move
+ * to return.
+ *
+ * @param maxDepth      deepest iteration to search, in plies
+ * @param maxNodes      most positions to visit
+ * @param maxTimeMillis longest the search may run, in milliseconds
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxTimeMillis) {
+    public SearchLimits {
+        if (maxDepth < 1 || maxNodes < 1 || maxTimeMillis < 1) {
+            throw new IllegalArgumentException("Search limits must be positive.");
+        }
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits time(long maxTimeMillis) {
+        return new SearchLimits(Search.MAX_PLY, Long.MAX_VALUE, maxTimeMillis);
+    }
+}
@@ -0,0 +1,27 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.PackedMove;
+
+/**
+ * The outcome of a search
+ *
+ * @param move  best packed move found, or {@link PackedMove#NONE} if the side to move has none
+ * @param score score of the move in centipawns for the side to move; mate scores are
+ *              within {@link Search#MAX_PLY} of {@link Search#MATE}
+ * @param depth deepest iteration that finished
+ * @param nodes positions visited
+ */
+public record SearchResult(int move, int score, int depth, long nodes) {
+
+    public boolean hasMove() {
+        return move != PackedMove.NONE;
+    }
+
+    /**
+     * @return the best move as a ChessMove, or null if there is none
+     */
+    public ChessMove bestMove() {
+        return hasMove() ? PackedMove.toChessMove(move) : null;
+    }
+}
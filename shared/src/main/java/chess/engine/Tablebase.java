@@ -0,0 +1,252 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Distance-to-mate table for every position with one set of material, such as
+ * KRK (white king and rook against the black king).
+ * <p>
+ * A table holds one byte per position, indexed by the side to move and the
+ * squares of the pieces in a fixed order: the white king, the black king, then
+ * the other white and black pieces strongest first. A byte is 0 for a draw,
+ * {@link #ILLEGAL} for a position that cannot occur, and otherwise one more than
+ * the number of plies to mate. An odd number of plies means the side to move
+ * mates, an even number that it is mated. Tables are built by
+ * {@link TablebaseGenerator} and opened through {@link Tablebases}.
+ * <p>
+ * Each table covers its material with either color holding the stronger side;
+ * positions with the colors swapped are looked up mirrored top to bottom.
+ * There is no castling or en passant in this game and the fifty-move rule is
+ * not taken into account.
+ */
+public class Tablebase {
+    public static final int MAX_PIECES = 4;
+    static final long MAGIC = 0x43484553_53544231L; // "CHESSTB1"
+    // magic, then the signature in ASCII padded to eight bytes
+    static final int HEADER_BYTES = 16;
+    static final int DRAW = 0;
+    static final int ILLEGAL = 255;
+
+    private static final String ORDER = "KQRBNP";
+    private static final int[] VALUES = {0, 9, 5, 3, 3, 1};
+
+    private final String signature;
+    private final ChessGame.TeamColor[] colors;
+    private final ChessPiece.PieceType[] types;
+    private final int stride;
+    private final ByteBuffer values;
+
+    Tablebase(String signature, ByteBuffer values) {
+        this.signature = signature;
+        int split = signature.indexOf('K', 1);
+        this.colors = new ChessGame.TeamColor[signature.length()];
+        this.types = new ChessPiece.PieceType[signature.length()];
+        // kings first, then the white pieces, then the black pieces
+        colors[0] = ChessGame.TeamColor.WHITE;
+        types[0] = ChessPiece.PieceType.KING;
+        colors[1] = ChessGame.TeamColor.BLACK;
+        types[1] = ChessPiece.PieceType.KING;
+        int slot = 2;
+        for (int i = 1; i < signature.length(); i++) {
+            if (i != split) {
+                colors[slot] = i < split ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                types[slot] = type(signature.charAt(i));
+                slot++;
+            }
+        }
+        this.stride = 1 << (6 * signature.length());
+        this.values = values;
+    }
+
+    /**
+     * Maps a table file into memory
+     *
+     * @param path the table file
+     * @return the opened table
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a table
+     */
+    public static Tablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+                throw new IllegalArgumentException(path + " is not a tablebase");
+            }
+            byte[] name = new byte[HEADER_BYTES - 8];
+            buffer.get(8, name);
+            String signature = new String(name, StandardCharsets.US_ASCII).strip();
+            if (!isSignature(signature) || buffer.capacity() != HEADER_BYTES + 2L * (1L << (6 * signature.length()))) {
+                throw new IllegalArgumentException(path + " is not a tablebase");
+            }
+            return new Tablebase(signature, buffer);
+        }
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return number of positions in the table, including illegal ones
+     */
+    public int size() {
+        return 2 * stride;
+    }
+
+    // raw byte for a position index
+    int value(int index) {
+        return values.get(HEADER_BYTES + index) & 0xFF;
+    }
+
+    /**
+     * Index of a position given as a list of pieces in any order. With flip set the
+     * colors are swapped and the board mirrored, for positions whose material is
+     * this table's with the colors reversed. Pieces of the same kind may come in
+     * any order, since the table holds the same value for every ordering of them.
+     */
+    int index(ChessGame.TeamColor[] pieceColors, ChessPiece.PieceType[] pieceTypes, int[] squares, int count,
+              ChessGame.TeamColor teamTurn, boolean flip) {
+        int used = 0;
+        int index = (teamTurn == ChessGame.TeamColor.WHITE) != flip ? 0 : stride;
+        for (int slot = 0; slot < colors.length; slot++) {
+            for (int i = 0; i < count; i++) {
+                if ((used & (1 << i)) == 0 && pieceTypes[i] == types[slot]
+                        && (pieceColors[i] == colors[slot]) != flip) {
+                    used |= 1 << i;
+                    int square = flip ? squares[i] ^ 56 : squares[i];
+                    index |= square << (6 * (colors.length - 1 - slot));
+                    break;
+                }
+            }
+        }
+        return index;
+    }
+
+    ChessGame.TeamColor color(int slot) {
+        return colors[slot];
+    }
+
+    ChessPiece.PieceType type(int slot) {
+        return types[slot];
+    }
+
+    int pieceCount() {
+        return colors.length;
+    }
+
+    /**
+     * Material signature of a list of pieces: "K" and the other white pieces, then
+     * "K" and the other black pieces, each strongest first
+     */
+    static String signature(ChessGame.TeamColor[] pieceColors, ChessPiece.PieceType[] pieceTypes, int count) {
+        StringBuilder white = new StringBuilder();
+        StringBuilder black = new StringBuilder();
+        for (int t = 0; t < ORDER.length(); t++) {
+            for (int i = 0; i < count; i++) {
+                if (letter(pieceTypes[i]) == ORDER.charAt(t)) {
+                    (pieceColors[i] == ChessGame.TeamColor.WHITE ? white : black).append(ORDER.charAt(t));
+                }
+            }
+        }
+        return white.append(black).toString();
+    }
+
+    // the same material with the colors swapped
+    static String flip(String signature) {
+        int split = signature.indexOf('K', 1);
+        return signature.substring(split) + signature.substring(0, split);
+    }
+
+    // the form a table is stored under: the side with more material as white
+    static String canonical(String signature) {
+        String flipped = flip(signature);
+        int balance = balance(signature);
+        if (balance != 0) {
+            return balance > 0 ? signature : flipped;
+        }
+        return signature.compareTo(flipped) <= 0 ? signature : flipped;
+    }
+
+    static boolean isSignature(String signature) {
+        if (!signature.matches("K[QRBNP]*K[QRBNP]*") || signature.length() > MAX_PIECES) {
+            return false;
+        }
+        int split = signature.indexOf('K', 1);
+        return isSorted(signature.substring(0, split)) && isSorted(signature.substring(split));
+    }
+
+    private static boolean isSorted(String side) {
+        for (int i = 1; i < side.length(); i++) {
+            if (ORDER.indexOf(side.charAt(i)) < ORDER.indexOf(side.charAt(i - 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int balance(String signature) {
+        int split = signature.indexOf('K', 1);
+        int balance = 0;
+        for (int i = 0; i < signature.length(); i++) {
+            int value = VALUES[ORDER.indexOf(signature.charAt(i))];
+            balance += i < split ? value : -value;
+        }
+        return balance;
+    }
+
+    private static char letter(ChessPiece.PieceType type) {
+        return switch (type) {
+            case KING -> 'K';
+            case QUEEN -> 'Q';
+            case ROOK -> 'R';
+            case BISHOP -> 'B';
+            case KNIGHT -> 'N';
+            case PAWN -> 'P';
+        };
+    }
+
+    private static ChessPiece.PieceType type(char letter) {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            case 'P' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece " + letter);
+        };
+    }
+
+    // writes the table to <signature>.tb, replacing any old file in one step
+    void write(Path directory) throws IOException {
+        Path path = directory.resolve(signature + ".tb");
+        Path temp = directory.resolve(signature + ".tb.tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = values.duplicate().clear();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static ByteBuffer newBuffer(String signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * (1 << (6 * signature.length())))
+                .order(ByteOrder.BIG_ENDIAN);
+        buffer.putLong(0, MAGIC);
+        buffer.put(8, String.format("%-8s", signature).getBytes(StandardCharsets.US_ASCII));
+        return buffer;
+    }
+}
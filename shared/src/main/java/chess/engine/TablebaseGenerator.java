@@ -0,0 +1,444 @@
+package chess.engine;
+
+import chess.Attacks;
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link Tablebase} tables by retrograde analysis.
+ * <p>
+ * Every position of the material is first scored from its captures and
+ * promotions, which lead into smaller tables that are built beforehand, and its
+ * moves are counted. Mates are then worked backwards one ply at a time: each
+ * position lost in n plies makes every position that can move into it a win in
+ * n + 1, and a position is lost once every one of its moves has been found to
+ * lose. Taking moves back is what makes this fast, since every position is
+ * finished once instead of being searched again on every pass. Whatever is left
+ * at the end is a draw.
+ * <p>
+ * Tables with up to {@link Tablebase#MAX_PIECES} pieces can be built. Three
+ * pieces take about a second. Four take about 30 seconds on one core and about
+ * 150 MB of heap per table, write a 32 MB file, and are meant to be built
+ * offline; a table with a pawn also builds the tables its promotions lead into.
+ * <p>
+ * Usage: {@code TablebaseGenerator <directory> <signature>...}, for example
+ * {@code TablebaseGenerator tablebases KQK KRK KPK KQKR}
+ */
+public class TablebaseGenerator {
+    private static final int MAX_PLIES = 253;
+    // markers in place of a move count
+    private static final int CANNOT_LOSE = 0xFF;
+    private static final int DONE = 0xFE;
+
+    private final Map<String, Tablebase> tables = new LinkedHashMap<>();
+
+    /**
+     * Makes an already built table available, so it is not built again when a
+     * larger table needs it
+     */
+    public void addTable(Tablebase table) {
+        tables.put(table.getSignature(), table);
+    }
+
+    /**
+     * @return every table built or added so far, smallest first
+     */
+    public Collection<Tablebase> getTables() {
+        return tables.values();
+    }
+
+    /**
+     * Builds a table and any smaller tables it leads into
+     *
+     * @param signature the material, such as "KRK" or "KQKR", with either side as white
+     * @return the table, stored with the stronger side as white
+     * @throws IllegalArgumentException if the signature is not valid material of up to four pieces
+     */
+    public Tablebase generate(String signature) {
+        if (!Tablebase.isSignature(signature)) {
+            throw new IllegalArgumentException("Not a tablebase signature: " + signature);
+        }
+        String canonical = Tablebase.canonical(signature);
+        Tablebase table = tables.get(canonical);
+        if (table == null) {
+            for (String smaller : dependencies(canonical)) {
+                generate(smaller);
+            }
+            table = new Generation(canonical).run();
+            tables.put(canonical, table);
+        }
+        return table;
+    }
+
+    // the tables a capture or promotion can lead into
+    private static List<String> dependencies(String signature) {
+        List<String> result = new ArrayList<>();
+        int split = signature.indexOf('K', 1);
+        for (int i = 1; i < signature.length(); i++) {
+            if (i == split) {
+                continue;
+            }
+            List<String> replacements = new ArrayList<>(List.of(""));
+            if (signature.charAt(i) == 'P') {
+                replacements.addAll(List.of("Q", "R", "B", "N"));
+            }
+            for (String replacement : replacements) {
+                String white = signature.substring(0, split);
+                String black = signature.substring(split);
+                if (i < split) {
+                    white = sorted(white.substring(0, i) + replacement + white.substring(i + 1));
+                } else {
+                    int j = i - split;
+                    black = sorted(black.substring(0, j) + replacement + black.substring(j + 1));
+                }
+                String smaller = Tablebase.canonical(white + black);
+                if (smaller.length() > 2 && !result.contains(smaller)) {
+                    result.add(smaller);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String sorted(String side) {
+        char[] letters = side.toCharArray();
+        Character[] boxed = new Character[letters.length];
+        for (int i = 0; i < letters.length; i++) {
+            boxed[i] = letters[i];
+        }
+        Arrays.sort(boxed, (a, b) -> "KQRBNP".indexOf(a) - "KQRBNP".indexOf(b));
+        StringBuilder result = new StringBuilder();
+        for (char letter : boxed) {
+            result.append(letter);
+        }
+        return result.toString();
+    }
+
+    // value of a position reached by a capture or promotion, from the smaller table
+    private int resolve(ChessGame.TeamColor[] colors, ChessPiece.PieceType[] types, int[] squares, int count,
+                        ChessGame.TeamColor teamTurn) {
+        if (count == 2) {
+            return Tablebase.DRAW;
+        }
+        String signature = Tablebase.signature(colors, types, count);
+        String canonical = Tablebase.canonical(signature);
+        Tablebase table = tables.get(canonical);
+        return table.value(table.index(colors, types, squares, count, teamTurn, !canonical.equals(signature)));
+    }
+
+    /**
+     * The working state for building one table. Values are written straight into
+     * the table's buffer; alongside them each position keeps how many of its
+     * moves stay in this table and have not yet been found to lose, and the
+     * longest mate it can run into through a capture or promotion.
+     */
+    private class Generation {
+        private final Tablebase table;
+        private final byte[] values;
+        private final int count;
+        private final int stride;
+        private final byte[] remaining;
+        private final byte[] longestExit;
+        private final int[][] levels = new int[MAX_PLIES + 1][];
+        private final int[] levelSizes = new int[MAX_PLIES + 1];
+
+        Generation(String signature) {
+            ByteBuffer buffer = Tablebase.newBuffer(signature);
+            table = new Tablebase(signature, buffer);
+            values = buffer.array();
+            count = table.pieceCount();
+            stride = table.size() / 2;
+            remaining = new byte[table.size()];
+            longestExit = new byte[table.size()];
+        }
+
+        Tablebase run() {
+            int[] squares = new int[count];
+            for (int index = 0; index < table.size(); index++) {
+                score(index, squares);
+            }
+            for (int plies = 0; plies <= MAX_PLIES; plies++) {
+                int[] level = levels[plies];
+                for (int i = 0; i < levelSizes[plies]; i++) {
+                    finish(level[i], plies, squares);
+                }
+                levels[plies] = null;
+            }
+            return table;
+        }
+
+        private int get(int index) {
+            return values[Tablebase.HEADER_BYTES + index] & 0xFF;
+        }
+
+        private void set(int index, int value) {
+            values[Tablebase.HEADER_BYTES + index] = (byte) value;
+        }
+
+        private void push(int plies, int index) {
+            if (plies > MAX_PLIES) {
+                throw new IllegalStateException(table.getSignature() + " has a mate longer than " + MAX_PLIES + " plies");
+            }
+            int[] level = levels[plies];
+            if (level == null) {
+                level = levels[plies] = new int[1024];
+            } else if (levelSizes[plies] == level.length) {
+                level = levels[plies] = Arrays.copyOf(level, level.length * 2);
+            }
+            level[levelSizes[plies]++] = index;
+        }
+
+        private ChessGame.TeamColor turn(int index) {
+            return index < stride ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        }
+
+        private int shift(int slot) {
+            return 6 * (count - 1 - slot);
+        }
+
+        private void decode(int index, int[] squares) {
+            for (int slot = 0; slot < count; slot++) {
+                squares[slot] = (index >>> shift(slot)) & 63;
+            }
+        }
+
+        // true if a piece of the given color other than the one in slot skip attacks square
+        private boolean attacked(int square, ChessGame.TeamColor by, int[] squares, long occupied, int skip) {
+            for (int slot = 0; slot < count; slot++) {
+                if (slot != skip && table.color(slot) == by
+                        && (Attacks.attacks(table.type(slot), by, squares[slot], occupied) & Bitboards.bit(square)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // first pass: marks illegal positions and mates, scores captures and promotions and counts the other moves
+        private void score(int index, int[] squares) {
+            decode(index, squares);
+            long occupied = 0L;
+            long own = 0L;
+            ChessGame.TeamColor mover = turn(index);
+            ChessGame.TeamColor opponent = mover == ChessGame.TeamColor.WHITE
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            for (int slot = 0; slot < count; slot++) {
+                long bit = Bitboards.bit(squares[slot]);
+                int row = Bitboards.row(squares[slot]);
+                if ((occupied & bit) != 0 || (table.type(slot) == ChessPiece.PieceType.PAWN && (row == 1 || row == 8))) {
+                    set(index, Tablebase.ILLEGAL);
+                    return;
+                }
+                occupied |= bit;
+                if (table.color(slot) == mover) {
+                    own |= bit;
+                }
+            }
+            int kingSlot = mover == ChessGame.TeamColor.WHITE ? 0 : 1;
+            // the side that just moved cannot have left its king in check
+            if (attacked(squares[1 - kingSlot], mover, squares, occupied, -1)) {
+                set(index, Tablebase.ILLEGAL);
+                return;
+            }
+
+            ChessGame.TeamColor[] childColors = new ChessGame.TeamColor[count];
+            ChessPiece.PieceType[] childTypes = new ChessPiece.PieceType[count];
+            int[] childSquares = new int[count];
+            int moves = 0;
+            int stays = 0;
+            boolean canLose = true;
+            int shortestWin = Integer.MAX_VALUE;
+            int longestLoss = 0;
+            for (int slot = 0; slot < count; slot++) {
+                if (table.color(slot) != mover) {
+                    continue;
+                }
+                int from = squares[slot];
+                ChessPiece.PieceType type = table.type(slot);
+                long targets;
+                if (type == ChessPiece.PieceType.PAWN) {
+                    targets = Attacks.pawnAttacks(mover, from) & occupied & ~own;
+                    int step = mover == ChessGame.TeamColor.WHITE ? 8 : -8;
+                    if ((occupied & Bitboards.bit(from + step)) == 0) {
+                        targets |= Bitboards.bit(from + step);
+                        int startingRow = mover == ChessGame.TeamColor.WHITE ? 2 : 7;
+                        if (Bitboards.row(from) == startingRow && (occupied & Bitboards.bit(from + 2 * step)) == 0) {
+                            targets |= Bitboards.bit(from + 2 * step);
+                        }
+                    }
+                } else {
+                    targets = Attacks.attacks(type, mover, from, occupied) & ~own;
+                }
+
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    int captured = -1;
+                    for (int other = 0; other < count; other++) {
+                        if (table.color(other) == opponent && squares[other] == to) {
+                            captured = other;
+                        }
+                    }
+                    long after = (occupied & ~Bitboards.bit(from)) | Bitboards.bit(to);
+                    int king = slot == kingSlot ? to : squares[kingSlot];
+                    squares[slot] = to;
+                    boolean legal = !attacked(king, opponent, squares, after, captured);
+                    squares[slot] = from;
+                    if (!legal) {
+                        continue;
+                    }
+                    moves++;
+                    boolean promotes = type == ChessPiece.PieceType.PAWN && (Bitboards.row(to) == 1 || Bitboards.row(to) == 8);
+                    if (captured < 0 && !promotes) {
+                        stays++;
+                        continue;
+                    }
+
+                    ChessPiece.PieceType[] results = promotes
+                            ? new ChessPiece.PieceType[]{ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+                            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT}
+                            : new ChessPiece.PieceType[]{type};
+                    for (ChessPiece.PieceType result : results) {
+                        int childCount = 0;
+                        for (int other = 0; other < count; other++) {
+                            if (other != captured) {
+                                childColors[childCount] = table.color(other);
+                                childTypes[childCount] = other == slot ? result : table.type(other);
+                                childSquares[childCount++] = other == slot ? to : squares[other];
+                            }
+                        }
+                        int value = resolve(childColors, childTypes, childSquares, childCount, opponent);
+                        if (value == Tablebase.DRAW) {
+                            canLose = false;
+                        } else if ((value - 1) % 2 == 0) {
+                            // the opponent is mated
+                            shortestWin = Math.min(shortestWin, value);
+                            canLose = false;
+                        } else {
+                            longestLoss = Math.max(longestLoss, value - 1);
+                        }
+                    }
+                }
+            }
+
+            if (moves == 0) {
+                if (attacked(squares[kingSlot], opponent, squares, occupied, -1)) {
+                    push(0, index);
+                } else {
+                    remaining[index] = (byte) CANNOT_LOSE; // stalemate
+                }
+                return;
+            }
+            if (shortestWin != Integer.MAX_VALUE) {
+                push(shortestWin, index);
+            }
+            if (!canLose) {
+                remaining[index] = (byte) CANNOT_LOSE;
+                return;
+            }
+            remaining[index] = (byte) stays;
+            longestExit[index] = (byte) longestLoss;
+            if (stays == 0) {
+                push(longestLoss + 1, index);
+            }
+        }
+
+        // second pass: settles a position at its distance to mate and passes that on to the positions before it
+        private void finish(int index, int plies, int[] squares) {
+            if ((remaining[index] & 0xFF) == DONE) {
+                return;
+            }
+            if (get(index) == Tablebase.DRAW) {
+                set(index, plies + 1);
+            }
+            remaining[index] = (byte) DONE;
+            boolean lost = plies % 2 == 0;
+
+            decode(index, squares);
+            long occupied = 0L;
+            for (int square : squares) {
+                occupied |= Bitboards.bit(square);
+            }
+            ChessGame.TeamColor previous = turn(index) == ChessGame.TeamColor.WHITE
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            int flipped = index < stride ? index + stride : index - stride;
+            for (int slot = 0; slot < count; slot++) {
+                if (table.color(slot) != previous) {
+                    continue;
+                }
+                int to = squares[slot];
+                long origins;
+                if (table.type(slot) == ChessPiece.PieceType.PAWN) {
+                    // a pawn only ever came from behind, one square or two from its starting row
+                    origins = 0L;
+                    int step = previous == ChessGame.TeamColor.WHITE ? 8 : -8;
+                    int one = to - step;
+                    int oneRow = Bitboards.row(one);
+                    if (oneRow != 1 && oneRow != 8 && (occupied & Bitboards.bit(one)) == 0) {
+                        origins |= Bitboards.bit(one);
+                        int jumpRow = previous == ChessGame.TeamColor.WHITE ? 4 : 5;
+                        if (Bitboards.row(to) == jumpRow && (occupied & Bitboards.bit(one - step)) == 0) {
+                            origins |= Bitboards.bit(one - step);
+                        }
+                    }
+                } else {
+                    // every other piece moves the same way in both directions
+                    origins = Attacks.attacks(table.type(slot), previous, to, occupied) & ~occupied;
+                }
+
+                while (origins != 0) {
+                    int from = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    int before = flipped + ((from - to) << shift(slot));
+                    if (get(before) != Tablebase.DRAW) {
+                        continue; // illegal or already settled
+                    }
+                    if (lost) {
+                        set(before, plies + 2);
+                        push(plies + 1, before);
+                    } else {
+                        int left = remaining[before] & 0xFF;
+                        if (left != CANNOT_LOSE) {
+                            remaining[before] = (byte) --left;
+                            if (left == 0) {
+                                push(Math.max(plies, longestExit[before] & 0xFF) + 1, before);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TablebaseGenerator <directory> <signature>...");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Files.createDirectories(directory);
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (Tablebase table : Tablebases.open(directory).getTables()) {
+            generator.addTable(table);
+        }
+        for (int i = 1; i < args.length; i++) {
+            long start = System.nanoTime();
+            generator.generate(args[i]);
+            System.out.printf("%s built in %.1f s%n", Tablebase.canonical(args[i]), (System.nanoTime() - start) / 1e9);
+        }
+        for (Tablebase table : generator.getTables()) {
+            table.write(directory);
+        }
+    }
+}
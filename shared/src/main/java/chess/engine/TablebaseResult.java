@@ -0,0 +1,29 @@
+package chess.engine;
+
+/**
+ * The exact result of a tablebase position with best play
+ *
+ * @param outcome the result for the side to move
+ * @param plies   plies until mate, or 0 for a draw
+ */
+public record TablebaseResult(Outcome outcome, int plies) {
+    public static final TablebaseResult DRAW = new TablebaseResult(Outcome.DRAW, 0);
+
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    // decodes a table byte; null for a position that cannot occur
+    static TablebaseResult of(int value) {
+        if (value == Tablebase.ILLEGAL) {
+            return null;
+        }
+        if (value == Tablebase.DRAW) {
+            return DRAW;
+        }
+        int plies = value - 1;
+        return new TablebaseResult(plies % 2 == 1 ? Outcome.WIN : Outcome.LOSS, plies);
+    }
+}
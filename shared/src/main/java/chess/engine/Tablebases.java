@@ -0,0 +1,135 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of {@link Tablebase} tables, probed by position.
+ * <p>
+ * Lookups read the mapped tables directly and change nothing, so one instance
+ * can be shared between threads.
+ */
+public class Tablebases {
+    private final Map<String, Tablebase> tables = new HashMap<>();
+
+    public Tablebases(Collection<Tablebase> tables) {
+        for (Tablebase table : tables) {
+            this.tables.put(table.getSignature(), table);
+        }
+    }
+
+    /**
+     * Maps every table file in a directory
+     *
+     * @param directory directory holding the .tb files
+     * @return the tables found, which may be none
+     * @throws IOException              if a file cannot be read
+     * @throws IllegalArgumentException if a .tb file is not a table
+     */
+    public static Tablebases open(Path directory) throws IOException {
+        Map<String, Tablebase> found = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tb")) {
+            for (Path file : files) {
+                Tablebase table = Tablebase.open(file);
+                found.put(table.getSignature(), table);
+            }
+        }
+        return new Tablebases(found.values());
+    }
+
+    public Collection<Tablebase> getTables() {
+        return tables.values();
+    }
+
+    /**
+     * Looks up the exact result of a position
+     *
+     * @param board    the position
+     * @param teamTurn the side to move
+     * @return the result for the side to move, or null if no table covers the position
+     */
+    public TablebaseResult probe(ChessBoard board, ChessGame.TeamColor teamTurn) {
+        long occupied = board.getOccupancy();
+        int count = Long.bitCount(occupied);
+        if (count > Tablebase.MAX_PIECES) {
+            return null;
+        }
+        ChessGame.TeamColor[] colors = new ChessGame.TeamColor[count];
+        ChessPiece.PieceType[] types = new ChessPiece.PieceType[count];
+        int[] squares = new int[count];
+        for (int i = 0; i < count; i++) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessPiece piece = board.getPiece(square);
+            colors[i] = piece.getTeamColor();
+            types[i] = piece.getPieceType();
+            squares[i] = square;
+        }
+        String signature = Tablebase.signature(colors, types, count);
+        if (!Tablebase.isSignature(signature)) {
+            return null;
+        }
+        if (count == 2) {
+            return TablebaseResult.DRAW; // bare kings
+        }
+        String canonical = Tablebase.canonical(signature);
+        Tablebase table = tables.get(canonical);
+        if (table == null) {
+            return null;
+        }
+        return TablebaseResult.of(table.value(table.index(colors, types, squares, count, teamTurn,
+                !canonical.equals(signature))));
+    }
+
+    public TablebaseResult probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * Picks the move that mates fastest when winning, holds the draw when
+     * drawing and puts off mate longest when losing
+     *
+     * @param game the game to move in, which is not changed: the replies are tried on a copy
+     * @return a packed move, or {@link PackedMove#NONE} if no table covers the position or there is no move
+     */
+    public int bestMove(ChessGame game) {
+        if (probe(game) == null) {
+            return PackedMove.NONE;
+        }
+        MoveList moves = new MoveList();
+        ChessGame scratch = new ChessGame(game);
+        scratch.legalMoves(moves);
+        int best = PackedMove.NONE;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            scratch.doMove(moves.get(i));
+            TablebaseResult reply = probe(scratch);
+            scratch.undoMove();
+            if (reply == null) {
+                continue;
+            }
+            // ranked for the mover: the reply's result is the opponent's
+            int rank = switch (reply.outcome()) {
+                case LOSS -> 1000 - reply.plies();
+                case DRAW -> 0;
+                case WIN -> -1000 + reply.plies();
+            };
+            if (rank > bestRank) {
+                bestRank = rank;
+                best = moves.get(i);
+            }
+        }
+        return best;
+    }
+}
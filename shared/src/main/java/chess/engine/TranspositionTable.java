@@ -0,0 +1,150 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results, indexed by Zobrist key and safe to
+ * share between search threads without locks.
+ * <p>
+ * Each entry is two longs in one flat array: the key XORed with the data word,
+ * then the data word itself. A reader recomputes key ^ data and only accepts
+ * the entry if it gives back the key it looked up, so an entry torn by two
+ * threads writing at once reads as a miss instead of as wrong data. The data
+ * word packs the best move (bits 0-15), bound type (16-17), depth (18-25),
+ * search generation (26-31) and score (32-63).
+ * <p>
+ * The table keeps one entry per slot. A new result replaces the stored one
+ * unless the stored one is for another position, from the current search, and
+ * searched deeper.
+ */
+public class TranspositionTable {
+    // bound types; never 0, so a stored data word is never 0 either
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] table;
+    private final int mask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param megabytes memory to use; rounded down to a power of two number of entries
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB.");
+        }
+        int entries = Integer.highestOneBit((int) Math.min((long) megabytes * 1024 * 1024 / ENTRY_BYTES, 1 << 29));
+        table = new long[entries * 2];
+        mask = entries - 1;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key Zobrist key of the position
+     * @return the packed data word, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = index(key);
+        long data = table[index + 1];
+        if ((table[index] ^ data) != key || data == 0) {
+            return 0;
+        }
+        hits.increment();
+        return data;
+    }
+
+    /**
+     * Stores a search result for a position
+     *
+     * @param key   Zobrist key of the position
+     * @param depth remaining depth the score was searched to
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param score score for the side to move, with mate scores made relative to this position
+     * @param move  best packed move, or 0 if none is known
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = index(key);
+        long stored = table[index + 1];
+        boolean samePosition = (table[index] ^ stored) == key;
+        if (stored != 0 && !samePosition && generation(stored) == generation && depth(stored) > depth) {
+            return;
+        }
+        if (samePosition && move == 0) {
+            move = move(stored); // keep the best move we already know about
+        }
+        long data = (move & 0xFFFFL)
+                | ((long) bound << 16)
+                | ((long) Math.min(depth, 255) << 18)
+                | ((long) generation << 26)
+                | ((long) score << 32);
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 63;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return fraction of probes that found their position, or 0 before any probe
+     */
+    public double getHitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0 : (double) hits.sum() / probeCount;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 16) & 3;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 18) & 0xFF;
+    }
+
+    public static int score(long data) {
+        return (int) (data >> 32);
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 26) & 63;
+    }
+
+    // slots are two longs wide; the low key bits pick the slot, the full key validates it
+    private int index(long key) {
+        return ((int) key & mask) << 1;
+    }
+}
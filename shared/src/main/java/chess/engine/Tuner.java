@@ -0,0 +1,197 @@
+package chess.engine;
+
+import chess.PieceSquareTables;
+
+import java.io.PrintStream;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fits the {@link Evaluator} weights to game results, the way Texel's tuning
+ * method does.
+ * <p>
+ * Each position's score is turned into an expected result for white with
+ * {@code 1 / (1 + 10^(-K * score / 400))}, and the weights are moved to shrink
+ * the mean squared difference between the expected and actual results. The
+ * score is a sum of one piece value and a phase-weighted midgame and endgame
+ * table entry per piece, so the gradient of the error is exact and cheap, and the weights follow it with the
+ * Adam update instead of Texel's one-weight-at-a-time search. Every pass over
+ * the positions is split across the common fork-join pool, which keeps every
+ * core busy.
+ */
+public class Tuner {
+    // piece values, then the midgame tables, then the endgame tables
+    private static final int PARAMETERS = 6 + 12 * 64;
+    private static final int ENDGAME = 6 * 64;
+    // positions handled by one fork-join task
+    private static final int CHUNK = 8192;
+    private static final double LEARNING_RATE = 1.0;
+
+    private final TuningSet positions;
+    private double scale = 1.0;
+
+    public Tuner(TuningSet positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * Finds the K that makes the evaluator's scores best predict the results, by a
+     * golden-section search. Tuning then keeps K fixed, so the weights stay in
+     * centipawns.
+     *
+     * @param evaluator the starting weights
+     * @return the fitted K, which is also used from now on
+     */
+    public double fitScale(Evaluator evaluator) {
+        double[] weights = weights(evaluator);
+        double low = 0.05;
+        double high = 5.0;
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        for (int i = 0; i < 40; i++) {
+            double a = high - ratio * (high - low);
+            double b = low + ratio * (high - low);
+            scale = a;
+            double errorA = error(weights);
+            scale = b;
+            double errorB = error(weights);
+            if (errorA < errorB) {
+                high = b;
+            } else {
+                low = a;
+            }
+        }
+        scale = (low + high) / 2;
+        return scale;
+    }
+
+    /**
+     * @return mean squared error of the evaluator's predicted results
+     */
+    public double error(Evaluator evaluator) {
+        return error(weights(evaluator));
+    }
+
+    /**
+     * Tunes the weights
+     *
+     * @param start      the weights to start from
+     * @param iterations passes over the positions
+     * @param progress   stream to report the error on every hundred passes, or null
+     * @return an evaluator with the tuned weights rounded to whole centipawns
+     */
+    public Evaluator tune(Evaluator start, int iterations, PrintStream progress) {
+        double[] weights = weights(start);
+        double[] mean = new double[PARAMETERS];
+        double[] variance = new double[PARAMETERS];
+        double beta1 = 0.9;
+        double beta2 = 0.999;
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            double[] gradient = new Pass(weights, 0, positions.size(), true).invoke();
+            for (int i = 0; i < PARAMETERS; i++) {
+                mean[i] = beta1 * mean[i] + (1 - beta1) * gradient[i];
+                variance[i] = beta2 * variance[i] + (1 - beta2) * gradient[i] * gradient[i];
+                double corrected = mean[i] / (1 - Math.pow(beta1, iteration));
+                double spread = Math.sqrt(variance[i] / (1 - Math.pow(beta2, iteration)));
+                weights[i] -= LEARNING_RATE * corrected / (spread + 1e-12);
+            }
+            if (progress != null && (iteration % 100 == 0 || iteration == iterations)) {
+                progress.printf("iteration %d: error %.6f%n", iteration, gradient[PARAMETERS] / positions.size());
+            }
+        }
+
+        int[] values = new int[6];
+        int[][] midgame = new int[6][64];
+        int[][] endgame = new int[6][64];
+        for (int type = 0; type < 6; type++) {
+            values[type] = (int) Math.round(weights[type]);
+            for (int square = 0; square < 64; square++) {
+                midgame[type][square] = (int) Math.round(weights[6 + type * 64 + square]);
+                endgame[type][square] = (int) Math.round(weights[6 + ENDGAME + type * 64 + square]);
+            }
+        }
+        return new Evaluator(values, midgame, endgame);
+    }
+
+    private double error(double[] weights) {
+        return new Pass(weights, 0, positions.size(), false).invoke()[PARAMETERS] / positions.size();
+    }
+
+    // piece values first, then the tables in evaluator order
+    private static double[] weights(Evaluator evaluator) {
+        double[] weights = new double[PARAMETERS];
+        int[] values = evaluator.getPieceValues();
+        int[][] midgame = evaluator.getMidgameTables();
+        int[][] endgame = evaluator.getEndgameTables();
+        for (int type = 0; type < 6; type++) {
+            weights[type] = values[type];
+            for (int square = 0; square < 64; square++) {
+                weights[6 + type * 64 + square] = midgame[type][square];
+                weights[6 + ENDGAME + type * 64 + square] = endgame[type][square];
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * One pass over a range of positions, giving the summed squared error in the
+     * last slot and, when asked for, the gradient of the summed error in the rest
+     */
+    private class Pass extends RecursiveTask<double[]> {
+        private final double[] weights;
+        private final int from;
+        private final int to;
+        private final boolean gradient;
+
+        Pass(double[] weights, int from, int to, boolean gradient) {
+            this.weights = weights;
+            this.from = from;
+            this.to = to;
+            this.gradient = gradient;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                Pass left = new Pass(weights, from, middle, gradient);
+                left.fork();
+                double[] sums = new Pass(weights, middle, to, gradient).compute();
+                double[] other = left.join();
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += other[i];
+                }
+                return sums;
+            }
+
+            double[] sums = new double[PARAMETERS + 1];
+            double slope = scale * Math.log(10) / 400;
+            for (int position = from; position < to; position++) {
+                // share of the midgame tables in the blend, as in Evaluator
+                double midgame = (double) positions.phase(position) / PieceSquareTables.MAX_PHASE;
+                double score = 0;
+                for (int i = positions.start(position); i < positions.end(position); i++) {
+                    int piece = positions.piece(i);
+                    int entry = 6 + (piece & 0x1FF);
+                    double value = weights[(piece >>> 6) & 7] + midgame * weights[entry]
+                            + (1 - midgame) * weights[ENDGAME + entry];
+                    score += (piece & TuningSet.BLACK) == 0 ? value : -value;
+                }
+                double expected = 1 / (1 + Math.exp(-slope * score));
+                double difference = positions.result(position) - expected;
+                sums[PARAMETERS] += difference * difference;
+                if (!gradient) {
+                    continue;
+                }
+                double step = -2 * difference * expected * (1 - expected) * slope;
+                for (int i = positions.start(position); i < positions.end(position); i++) {
+                    int piece = positions.piece(i);
+                    double signed = (piece & TuningSet.BLACK) == 0 ? step : -step;
+                    int entry = 6 + (piece & 0x1FF);
+                    sums[(piece >>> 6) & 7] += signed;
+                    sums[entry] += midgame * signed;
+                    sums[ENDGAME + entry] += (1 - midgame) * signed;
+                }
+            }
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Fen;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Positions labelled with the result of the game they came from, for {@link Tuner}.
+ * <p>
+ * Positions are kept in flat primitive arrays rather than as boards: each piece
+ * is one short naming its color, type and square, and each position is a run of
+ * those shorts. A million middlegame positions take about 60 MB and no objects, and the
+ * tuner walks them in order.
+ */
+public class TuningSet {
+    // a piece is (black << 9) | (type << 6) | square in its evaluator table, rank 8 first as seen from its own side
+    static final int BLACK = 1 << 9;
+
+    private short[] pieces = new short[1 << 16];
+    private int[] starts = new int[1 << 12];
+    // result for white in half points: 0 lost, 1 drawn, 2 won
+    private byte[] results = new byte[1 << 12];
+    // game phase, see ChessBoard#getPhase
+    private byte[] phases = new byte[1 << 12];
+    private int size;
+    private int pieceCount;
+
+    /**
+     * Adds a position
+     *
+     * @param board       the position
+     * @param whiteResult result of the game for white: 1 for a win, 0.5 for a draw and 0 for a loss
+     */
+    public void add(ChessBoard board, double whiteResult) {
+        if (size + 1 >= starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            results = Arrays.copyOf(results, results.length * 2);
+            phases = Arrays.copyOf(phases, phases.length * 2);
+        }
+        if (pieceCount + 64 > pieces.length) {
+            pieces = Arrays.copyOf(pieces, pieces.length * 2);
+        }
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            long white = board.getBitboard(ChessGame.TeamColor.WHITE, type);
+            while (white != 0) {
+                int square = Long.numberOfTrailingZeros(white);
+                white &= white - 1;
+                pieces[pieceCount++] = (short) ((type.ordinal() << 6) | (square ^ 56));
+            }
+            long black = board.getBitboard(ChessGame.TeamColor.BLACK, type);
+            while (black != 0) {
+                int square = Long.numberOfTrailingZeros(black);
+                black &= black - 1;
+                // mirrored, a black piece's table index is its own square
+                pieces[pieceCount++] = (short) (BLACK | (type.ordinal() << 6) | square);
+            }
+        }
+        results[size] = (byte) Math.round(whiteResult * 2);
+        phases[size] = (byte) board.getPhase();
+        starts[++size] = pieceCount;
+    }
+
+    /**
+     * Adds every labelled position from text with one position per line: a FEN
+     * string followed anywhere on the line by the game's result as
+     * {@code 1-0}, {@code 0-1} or {@code 1/2-1/2}, or as a number from white's
+     * side of 1.0, 0.5 or 0.0. Lines without a result are skipped.
+     *
+     * @param input the text to read
+     * @return number of positions added
+     * @throws IOException              if the text cannot be read
+     * @throws IllegalArgumentException if a line with a result does not start with a valid board
+     */
+    public int read(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        int added = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] fields = line.trim().split("[\\s;\"\\[\\]]+");
+            double result = -1;
+            for (int i = 1; i < fields.length && result < 0; i++) {
+                result = switch (fields[i]) {
+                    case "1-0", "1.0" -> 1;
+                    case "1/2-1/2", "0.5" -> 0.5;
+                    case "0-1", "0.0" -> 0;
+                    default -> -1;
+                };
+            }
+            if (result >= 0) {
+                add(Fen.parseBoard(fields[0]), result);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int start(int position) {
+        return starts[position];
+    }
+
+    int end(int position) {
+        return starts[position + 1];
+    }
+
+    int piece(int index) {
+        return pieces[index];
+    }
+
+    double result(int position) {
+        return results[position] / 2.0;
+    }
+
+    int phase(int position) {
+        return phases[position];
+    }
+}
@@ -0,0 +1,21 @@
+package websocket.deserializers;
+
+import chess.BoardSnapshot;
+import chess.ChessBoard;
+import chess.ChessGame;
+import com.google.gson.*;
+
+import java.lang.reflect.Type;
+
+public class BoardSnapshotDeserializer implements JsonDeserializer<BoardSnapshot> {
+    @Override
+    public BoardSnapshot deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+            throws JsonParseException {
+
+        JsonObject obj = json.getAsJsonObject();
+        ChessBoard board = context.deserialize(obj.get("board"), ChessBoard.class);
+        ChessGame.TeamColor teamTurn = ChessGame.TeamColor.valueOf(obj.get("teamTurn").getAsString());
+        boolean isGameOver = obj.get("isGameOver").getAsBoolean();
+        return BoardSnapshot.of(board, teamTurn, isGameOver);
+    }
+}
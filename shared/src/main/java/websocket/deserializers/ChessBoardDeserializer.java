@@ -19,7 +19,7 @@ public class ChessBoardDeserializer implements JsonDeserializer<ChessBoard> {
             JsonArray rank = squares.get(row).getAsJsonArray();
             for (int col = 0; col < 8; col++) {
                 ChessPiece piece = context.deserialize(rank.get(col), ChessPiece.class);
-                board.addPiece(new ChessPosition(8 - row, col + 1), piece);
+                board.addPiece(ChessPosition.of(8 - row, col + 1), piece);
             }
         }
         return board;
@@ -13,6 +13,6 @@ public class ChessPieceDeserializer implements JsonDeserializer<ChessPiece> {
         JsonObject obj = json.getAsJsonObject();
         ChessGame.TeamColor color = ChessGame.TeamColor.valueOf(obj.get("pieceColor").getAsString());
         ChessPiece.PieceType type = ChessPiece.PieceType.valueOf(obj.get("type").getAsString());
-        return new ChessPiece(color, type);
+        return ChessPiece.of(color, type);
     }
 }
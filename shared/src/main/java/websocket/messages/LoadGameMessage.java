@@ -1,22 +1,33 @@
 package websocket.messages;
 
+import chess.BoardSnapshot;
 import chess.ChessGame;
-import com.google.gson.annotations.Expose;
-import com.google.gson.annotations.SerializedName;
 
 public class LoadGameMessage extends ServerMessage {
-    private ChessGame game; // The current state of the chess game
+    // The current state of the chess game, immutable so it can be sent while the game moves on
+    private BoardSnapshot game;
 
-    public LoadGameMessage(ChessGame game) {
+    public LoadGameMessage(BoardSnapshot game) {
         super(ServerMessageType.LOAD_GAME);
         this.game = game;
     }
 
+    public LoadGameMessage(ChessGame game) {
+        this(game.getSnapshot());
+    }
+
+    /**
+     * @return a new game in the sent position, which the caller owns
+     */
     public ChessGame getGame() {
-        return game;
+        return game == null ? null : game.toGame();
     }
     public void setGame(ChessGame game) {
-        this.game = game;
+        this.game = game.getSnapshot();
+    }
+
+    public BoardSnapshot getSnapshot() {
+        return game;
     }
 
     @Override
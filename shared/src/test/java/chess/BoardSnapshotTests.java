@@ -0,0 +1,53 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class BoardSnapshotTests {
+
+    @Test
+    @DisplayName("Snapshot Matches Game")
+    public void snapshotMatchesGame() {
+        ChessGame game = Fen.parse("r3k3/1P6/8/8/8/8/8/4K2R b - - 0 1");
+        BoardSnapshot snapshot = game.getSnapshot();
+
+        Assertions.assertEquals(game.getZobristKey(), snapshot.getZobristKey());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, snapshot.getTeamTurn());
+        Assertions.assertFalse(snapshot.isGameOver());
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                snapshot.getPiece(ChessPosition.of(7, 2)));
+        Assertions.assertNull(snapshot.getPiece(ChessPosition.of(4, 4)));
+        Assertions.assertEquals(game.getBoard(), snapshot.toBoard());
+        Assertions.assertEquals(game, snapshot.toGame());
+    }
+
+    @Test
+    @DisplayName("Snapshot Is Reused Until The Game Changes")
+    public void snapshotIsReused() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        BoardSnapshot start = game.getSnapshot();
+        Assertions.assertSame(start, game.getSnapshot(), "Same position was copied again");
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        BoardSnapshot afterMove = game.getSnapshot();
+        Assertions.assertNotEquals(start, afterMove);
+        // the earlier snapshot still shows the position it was taken in
+        Assertions.assertNotNull(start.getPiece(ChessPosition.of(2, 5)));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, start.getTeamTurn());
+        Assertions.assertEquals(new ChessGame().getSnapshot(), start);
+
+        game.setGameOver(true);
+        Assertions.assertTrue(game.getSnapshot().isGameOver());
+        Assertions.assertFalse(afterMove.isGameOver());
+    }
+
+    @Test
+    @DisplayName("Restored Game Belongs To Caller")
+    public void restoredGameBelongsToCaller() {
+        BoardSnapshot snapshot = new ChessGame().getSnapshot();
+        ChessGame copy = snapshot.toGame();
+        copy.doMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+
+        Assertions.assertNotNull(snapshot.getPiece(ChessPosition.of(1, 7)));
+        Assertions.assertEquals(new ChessGame().getZobristKey(), snapshot.getZobristKey());
+    }
+}
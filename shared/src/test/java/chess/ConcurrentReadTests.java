@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConcurrentReadTests {
+
+    @Test
+    @DisplayName("Move Check Leaves Board Alone")
+    public void moveCheckLeavesBoardAlone() {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/4R3/4K2r w - - 0 1");
+        ChessBoard before = new ChessBoard(game.getBoard());
+        long key = game.getZobristKey();
+
+        // the king is in check along the first rank, so only stepping off it helps
+        Assertions.assertTrue(game.isMoveValid(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 4), null)));
+        Assertions.assertFalse(game.isMoveValid(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 4), null)));
+        Assertions.assertFalse(game.isMoveValid(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(2, 1), null)));
+        Assertions.assertFalse(game.isMoveValid(new ChessMove(ChessPosition.of(4, 4), ChessPosition.of(5, 4), null)));
+
+        Assertions.assertEquals(before, game.getBoard());
+        Assertions.assertEquals(key, game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Readers Never See A Half Made Move")
+    public void readersNeverSeeHalfMadeMove() throws InterruptedException {
+        ChessGame game = new ChessGame();
+        ChessPosition g1 = ChessPosition.of(1, 7);
+        ChessMove knightOut = new ChessMove(g1, ChessPosition.of(3, 6), null);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    // the knight is either home with two moves or gone; on both squares at once it would have one
+                    int moves = game.validMoves(g1).size();
+                    if (moves != 0 && moves != 2) {
+                        failures.add("knight had " + moves + " moves");
+                    }
+                    if (game.isInCheck(ChessGame.TeamColor.WHITE) || game.isInCheckmate(ChessGame.TeamColor.BLACK)) {
+                        failures.add("check in a quiet position");
+                    }
+                    if (!game.hasValidMoves(ChessGame.TeamColor.WHITE)) {
+                        failures.add("white had no moves");
+                    }
+                    // a copy holds one of the two positions, with the turn to match
+                    ChessGame copy = new ChessGame(game);
+                    boolean home = copy.getBoard().getPiece(g1) != null;
+                    if (home != (copy.getTeamTurn() == ChessGame.TeamColor.WHITE)
+                            || home == (copy.getBoard().getPiece(ChessPosition.of(3, 6)) != null)) {
+                        failures.add("copy was torn");
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        long end = System.nanoTime() + 300_000_000L;
+        while (System.nanoTime() < end) {
+            game.doMove(knightOut);
+            game.undoMove();
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        Assertions.assertTrue(failures.isEmpty(), "Readers saw torn positions: " + failures.peek());
+        Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard());
+    }
+}
@@ -0,0 +1,115 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+public class DrawRuleTests {
+
+    private static void move(ChessGame game, String from, String to) throws InvalidMoveException {
+        game.makeMove(new ChessMove(position(from), position(to), null));
+    }
+
+    private static ChessPosition position(String square) {
+        return ChessPosition.of(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int cycle = 0; cycle < 2; cycle++) {
+            Assertions.assertFalse(game.isThreefoldRepetition(), "Repetition found after " + cycle + " cycles");
+            move(game, "g1", "f3");
+            move(game, "g8", "f6");
+            move(game, "f3", "g1");
+            move(game, "f6", "g8");
+        }
+        // the start position has now come up three times
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertTrue(game.isDrawnByRule());
+        Assertions.assertEquals(8, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Pawn Move Resets History")
+    public void pawnMoveResetsHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        move(game, "g1", "f3");
+        move(game, "g8", "f6");
+        move(game, "f3", "g1");
+        move(game, "f6", "g8");
+        move(game, "e2", "e3");
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        move(game, "g8", "f6");
+        move(game, "g1", "f3");
+        move(game, "f6", "g8");
+        move(game, "f3", "g1");
+        Assertions.assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Undo Restores History")
+    public void undoRestoresHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int cycle = 0; cycle < 2; cycle++) {
+            move(game, "g1", "f3");
+            move(game, "g8", "f6");
+            move(game, "f3", "g1");
+            move(game, "f6", "g8");
+        }
+        game.doMove(new ChessMove(position("e2"), position("e4"), null));
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        game.undoMove();
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(8, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Undo Across Capture Restores History")
+    public void undoAcrossCaptureRestoresHistory() throws InvalidMoveException {
+        ChessGame game = Fen.parse("4k3/8/8/p7/8/8/8/R3K3 w - - 0 1");
+        for (int cycle = 0; cycle < 2; cycle++) {
+            move(game, "e1", "d1");
+            move(game, "e8", "d8");
+            move(game, "d1", "e1");
+            move(game, "d8", "e8");
+        }
+        Assertions.assertTrue(game.isThreefoldRepetition());
+
+        // quiet moves after the capture are stored over the slots the repetition lives in
+        game.doMove(new ChessMove(position("a1"), position("a5"), null));
+        game.doMove(new ChessMove(position("e8"), position("d8"), null));
+        game.doMove(new ChessMove(position("a5"), position("a6"), null));
+        game.undoMove();
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(8, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("History Survives Storage")
+    public void historySurvivesStorage() throws InvalidMoveException {
+        // games are stored and reloaded with plain Gson between moves
+        Gson gson = new Gson();
+        ChessGame game = new ChessGame();
+        for (int cycle = 0; cycle < 2; cycle++) {
+            for (String[] step : new String[][]{{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}}) {
+                move(game, step[0], step[1]);
+                game = gson.fromJson(gson.toJson(game), ChessGame.class);
+            }
+        }
+        Assertions.assertTrue(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = Fen.parse("7k/8/8/8/8/8/8/K6R w - - 98 1");
+        Assertions.assertFalse(game.isFiftyMoveRule());
+        Assertions.assertFalse(game.isDrawnByRule());
+        move(game, "h1", "h2");
+        move(game, "h8", "g8");
+        Assertions.assertTrue(game.isFiftyMoveRule());
+    }
+}
@@ -0,0 +1,63 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+public class EvaluationCounterTests {
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertEquals(4000, board.getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(4000, board.getMaterial(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(8, board.getPieceCount(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase());
+        // the position is symmetric
+        Assertions.assertEquals(0, board.getPieceSquareScore(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Totals Follow Moves")
+    public void totalsFollowMoves() {
+        Random random = new Random(7);
+        Gson gson = new Gson();
+        ChessGame game = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1");
+        for (int ply = 0; ply < 200; ply++) {
+            MoveList moves = new MoveList();
+            game.legalMoves(moves);
+            if (moves.size() == 0) {
+                break;
+            }
+            game.doMove(moves.get(random.nextInt(moves.size())));
+            if (ply % 3 == 2) {
+                game.undoMove();
+            }
+
+            // a board read back by Gson rebuilds its totals from scratch
+            ChessBoard rebuilt = gson.fromJson(gson.toJson(game.getBoard()), ChessBoard.class);
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                Assertions.assertEquals(rebuilt.getMaterial(color), game.getBoard().getMaterial(color));
+                Assertions.assertEquals(rebuilt.getPieceSquareScore(color), game.getBoard().getPieceSquareScore(color));
+            }
+            Assertions.assertEquals(rebuilt.getPhase(), game.getBoard().getPhase());
+        }
+    }
+
+    @Test
+    @DisplayName("Insufficient Material")
+    public void insufficientMaterial() {
+        Assertions.assertTrue(Fen.parseBoard("8/8/4k3/8/8/3K4/8/8").isInsufficientMaterial());
+        Assertions.assertTrue(Fen.parseBoard("8/8/4k3/8/8/3K4/8/6N1").isInsufficientMaterial());
+        // bishops all on dark squares
+        Assertions.assertTrue(Fen.parseBoard("8/8/4kb2/8/8/3K4/8/2B5").isInsufficientMaterial());
+
+        Assertions.assertFalse(Fen.parseBoard("8/8/4kb2/8/8/3K4/8/5B2").isInsufficientMaterial());
+        Assertions.assertFalse(Fen.parseBoard("8/8/4k3/8/8/3K4/8/5NN1").isInsufficientMaterial());
+        Assertions.assertFalse(Fen.parseBoard("8/8/4k3/8/8/3K4/7P/8").isInsufficientMaterial());
+        Assertions.assertFalse(Fen.parseBoard("8/8/4k3/8/8/3K4/8/7r").isInsufficientMaterial());
+    }
+}
@@ -0,0 +1,85 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+import passoff.chess.TestUtilities;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(Fen.START_POSITION, Fen.write(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Round Trip")
+    public void roundTrip() {
+        String[] positions = {
+                "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1",
+                "8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1",
+                "K1k5/8/P7/8/8/8/8/8 w - - 0 1",
+                "8/5k2/8/3p4/8/2R5/5PK1/8 b - - 7 43",
+        };
+        for (String fen : positions) {
+            ChessGame game = Fen.parse(fen);
+            Assertions.assertEquals(fen, Fen.write(game));
+            Assertions.assertEquals(game, Fen.parse(Fen.write(game)));
+        }
+    }
+
+    @Test
+    @DisplayName("Move Counters")
+    public void moveCounters() {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/4R3/4K3 w - - 3 20");
+        game.doMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(2, 1), null));
+        Assertions.assertEquals("4k3/8/8/8/8/8/R7/4K3 b - - 4 20", Fen.write(game));
+        game.doMove(new ChessMove(ChessPosition.of(8, 5), ChessPosition.of(8, 4), null));
+        Assertions.assertEquals("3k4/8/8/8/8/8/R7/4K3 w - - 5 21", Fen.write(game));
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals("4k3/8/8/8/8/8/4R3/4K3 w - - 3 20", Fen.write(game));
+    }
+
+    @Test
+    @DisplayName("Matches Loaded Board")
+    public void matchesLoadedBoard() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                |b| | | | | | | |
+                | | | | |N| | | |
+                | | |P| | | | | |
+                | | | | |R| | | |
+                | | | | |K| | |q|
+                """);
+        Assertions.assertEquals("4k3/4r3/8/b7/4N3/2P5/4R3/4K2q", Fen.write(board));
+        Assertions.assertEquals(board, Fen.parseBoard(Fen.write(board)));
+    }
+
+    @Test
+    @DisplayName("Optional Fields")
+    public void optionalFields() {
+        ChessGame game = Fen.parse("8/8/8/4k3/8/8/8/4K3 b KQkq e3 12 40");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, Fen.parse("8/8/8/4k3/8/8/8/4K3").getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Invalid FEN")
+    public void invalidFen() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8 w"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("9/8/8/8/8/8/8/8 w"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/7x w"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 w - z9"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 w qK"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 w KK"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 w - e4"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 w - - 12345"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 w - - 0 1 x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("  "));
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    @DisplayName("Cached Moves Match Valid Moves")
+    public void cachedMovesMatchValidMoves() throws InvalidMoveException {
+        LegalMoveCache cache = new LegalMoveCache(64);
+        ChessGame game = new ChessGame();
+        ChessPosition knight = ChessPosition.of(1, 2);
+
+        Assertions.assertEquals(new HashSet<>(game.validMoves(knight)), new HashSet<>(cache.validMoves(game, knight)));
+        Assertions.assertSame(cache.validMoves(game, knight), cache.validMoves(game, knight),
+                "Same position and square was generated again");
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(2, cache.getHits());
+
+        // a new position is a new key
+        game.makeMove(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(4, 4), null));
+        Assertions.assertEquals(new HashSet<>(game.validMoves(knight)), new HashSet<>(cache.validMoves(game, knight)));
+        Assertions.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Cache Stays Bounded")
+    public void cacheStaysBounded() {
+        LegalMoveCache cache = new LegalMoveCache(16);
+        ChessGame game = new ChessGame();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                cache.validMoves(game, ChessPosition.of(row, col));
+            }
+        }
+        Assertions.assertTrue(cache.size() <= 16, "Cache grew past its limit: " + cache.size());
+    }
+
+    @Test
+    @DisplayName("Moves Cached Under The Position They Came From")
+    public void movesCachedUnderTheirPosition() throws InterruptedException {
+        LegalMoveCache cache = new LegalMoveCache(64);
+        ChessGame game = new ChessGame();
+        ChessPosition g1 = ChessPosition.of(1, 7);
+        ChessMove knightOut = new ChessMove(g1, ChessPosition.of(3, 6), null);
+        // quiet copies of the two positions the live game goes back and forth between
+        ChessGame home = new ChessGame();
+        ChessGame moved = new ChessGame();
+        moved.doMove(knightOut);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                cache.clear();
+                cache.validMoves(game, g1);
+                // whatever the live read stored has to agree with the position it is stored under
+                if (cache.validMoves(home, g1).size() != 2 || !cache.validMoves(moved, g1).isEmpty()) {
+                    failures.add("moves stored under the wrong position: " + cache.validMoves(home, g1) + " / " + cache.validMoves(moved, g1));
+                }
+            }
+        });
+        reader.start();
+        long end = System.nanoTime() + 300_000_000L;
+        while (System.nanoTime() < end) {
+            game.doMove(knightOut);
+            game.undoMove();
+        }
+        running.set(false);
+        reader.join();
+
+        Assertions.assertTrue(failures.isEmpty(), failures.peek());
+    }
+}
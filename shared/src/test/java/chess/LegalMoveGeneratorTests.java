@@ -0,0 +1,125 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+import passoff.chess.TestUtilities;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class LegalMoveGeneratorTests {
+
+    // legal moves must equal the pseudo-legal moves that survive being tried on the board
+    private static void assertMatchesTrialMoves(ChessBoard board) {
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece == null) {
+                continue;
+            }
+            ChessPosition position = Bitboards.position(square);
+            Set<ChessMove> expected = new HashSet<>();
+            for (ChessMove move : piece.pieceMoves(board, position)) {
+                if (game.isMoveValid(move)) {
+                    expected.add(move);
+                }
+            }
+            List<ChessMove> actual = new ArrayList<>(game.validMoves(position));
+            Assertions.assertEquals(expected.size(), actual.size(), "Duplicate or missing moves from " + position);
+            Assertions.assertEquals(expected, new HashSet<>(actual), "Wrong moves from " + position);
+        }
+
+        // the lazy path must visit the same moves as the list path, for both teams
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+            MoveList listed = new MoveList();
+            generator.legalMoves(listed);
+            Set<Integer> visited = new HashSet<>();
+            Assertions.assertTrue(generator.forEachLegalMove(move -> visited.add(move)),
+                    "Visitor was stopped without asking");
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < listed.size(); i++) {
+                expected.add(listed.get(i));
+            }
+            Assertions.assertEquals(expected, visited, "Lazy moves differ for " + color);
+            Assertions.assertEquals(!listed.isEmpty(), generator.hasLegalMoves(), "hasLegalMoves wrong for " + color);
+        }
+    }
+
+    @Test
+    @DisplayName("Pinned Pieces")
+    public void pinnedPieces() {
+        assertMatchesTrialMoves(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                |b| | | | | | | |
+                | | | | |N| | | |
+                | | |P| | | | | |
+                | | | | |R| | | |
+                | | | | |K| | |q|
+                """));
+    }
+
+    @Test
+    @DisplayName("Single Check")
+    public void singleCheck() {
+        assertMatchesTrialMoves(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |q| | | | | | | |
+                | | |N| | |B| | |
+                | | | |P| |P| | |
+                | | | | |K| | | |
+                """));
+    }
+
+    @Test
+    @DisplayName("Double Check")
+    public void doubleCheck() {
+        assertMatchesTrialMoves(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | |n| | | | |
+                | | |Q| | |P| | |
+                | | | | |K| | | |
+                """));
+    }
+
+    @Test
+    @DisplayName("Pawn Promotions Under Pin")
+    public void pawnPromotionsUnderPin() {
+        assertMatchesTrialMoves(TestUtilities.loadBoard("""
+                | |n| | | | | |k|
+                |P| | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | |b| |
+                | | | | | | | | |
+                | | | |P| | | | |
+                |K| | | | | | | |
+                """));
+    }
+
+    @Test
+    @DisplayName("Visitor Stops Early")
+    public void visitorStopsEarly() {
+        LegalMoveGenerator generator = new LegalMoveGenerator(TestUtilities.defaultBoard(), ChessGame.TeamColor.WHITE);
+        int[] visits = {0};
+        Assertions.assertFalse(generator.forEachLegalMove(move -> ++visits[0] < 3));
+        Assertions.assertEquals(3, visits[0], "Visitor kept receiving moves after asking to stop");
+    }
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        assertMatchesTrialMoves(TestUtilities.defaultBoard());
+    }
+}
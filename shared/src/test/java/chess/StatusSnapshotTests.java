@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+import passoff.chess.TestUtilities;
+
+public class StatusSnapshotTests {
+
+    @Test
+    @DisplayName("Status Reused Until Position Changes")
+    public void statusReusedUntilPositionChanges() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameStatus status = game.getStatus();
+        Assertions.assertSame(status, game.getStatus(), "Status was rebuilt for the same position");
+        Assertions.assertEquals(20, status.getLegalMoveCount(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(20, status.getLegalMoveCount(ChessGame.TeamColor.BLACK));
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertNotSame(status, game.getStatus(), "Status was not rebuilt after a move");
+
+        // changing the board directly also changes its key
+        status = game.getStatus();
+        game.getBoard().addPiece(ChessPosition.of(4, 5), null);
+        Assertions.assertNotSame(status, game.getStatus(), "Status was not rebuilt after the board changed");
+    }
+
+    @Test
+    @DisplayName("Status Matches Direct Checks")
+    public void statusMatchesDirectChecks() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                |r|n|b|q|k|b|n|r|
+                |p|p|p|p| |p|p|p|
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | | | | |P| |
+                | | | | | |P| | |
+                |P|P|P|P|P| | |P|
+                |R|N|B|Q|K|B|N|R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        game.makeMove(new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+
+        GameStatus status = game.getStatus();
+        Assertions.assertTrue(status.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(status.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(status.isInStalemate(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0, status.getLegalMoveCount(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(status.isInCheck(ChessGame.TeamColor.BLACK));
+
+        // a fresh game of the same position computes the same answers without the snapshot
+        ChessGame copy = new ChessGame();
+        copy.setBoard(game.getBoard());
+        copy.setTeamTurn(game.getTeamTurn());
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            Assertions.assertEquals(copy.isInCheck(color), status.isInCheck(color));
+            Assertions.assertEquals(copy.isInCheckmate(color), status.isInCheckmate(color));
+            Assertions.assertEquals(copy.isInStalemate(color), status.isInStalemate(color));
+        }
+    }
+}
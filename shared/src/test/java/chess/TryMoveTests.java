@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class TryMoveTests {
+
+    @Test
+    @DisplayName("Applied")
+    public void applied() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(MoveResult.APPLIED, game.tryMove(move("e2", "e4", null)));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(MoveResult.APPLIED, game.tryMove(move("e7", "e5", null), ChessGame.TeamColor.BLACK));
+        Assertions.assertNotNull(game.getBoard().getPiece(ChessPosition.of(4, 5)));
+    }
+
+    @Test
+    @DisplayName("Refused")
+    public void refused() {
+        ChessGame game = new ChessGame();
+        ChessGame before = new ChessGame(game);
+        Assertions.assertEquals(MoveResult.NO_PIECE, game.tryMove(move("e4", "e5", null)));
+        Assertions.assertEquals(MoveResult.NOT_YOUR_TURN, game.tryMove(move("e7", "e5", null)));
+        Assertions.assertEquals(MoveResult.NOT_YOUR_TURN, game.tryMove(move("e2", "e4", null), ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(MoveResult.ILLEGAL, game.tryMove(move("e2", "e5", null)));
+        Assertions.assertEquals(MoveResult.ILLEGAL, game.tryMove(move("e2", "e4", ChessPiece.PieceType.QUEEN)));
+        Assertions.assertEquals(before.getBoard(), game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+
+        game.setGameOver(true);
+        Assertions.assertEquals(MoveResult.GAME_OVER, game.tryMove(move("e2", "e4", null)));
+    }
+
+    @Test
+    @DisplayName("Promotion")
+    public void promotion() {
+        ChessGame game = Fen.parse("8/4P3/8/8/8/k7/8/K7 w - - 0 1");
+        Assertions.assertEquals(MoveResult.ILLEGAL, game.tryMove(move("e7", "e8", null)));
+        Assertions.assertEquals(MoveResult.ILLEGAL, game.tryMove(move("e7", "e8", ChessPiece.PieceType.KING)));
+        Assertions.assertEquals(MoveResult.APPLIED, game.tryMove(move("e7", "e8", ChessPiece.PieceType.KNIGHT)));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, game.getBoard().getPiece(ChessPosition.of(8, 5)).getPieceType());
+    }
+
+    @Test
+    @DisplayName("Make Move Messages")
+    public void makeMoveMessages() {
+        ChessGame game = new ChessGame();
+        InvalidMoveException e = Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(move("e7", "e5", null)));
+        Assertions.assertEquals(MoveResult.NOT_YOUR_TURN.getMessage(), e.getMessage());
+    }
+
+    private static ChessMove move(String from, String to, ChessPiece.PieceType promotion) {
+        return new ChessMove(position(from), position(to), promotion);
+    }
+
+    private static ChessPosition position(String name) {
+        return ChessPosition.of(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+}
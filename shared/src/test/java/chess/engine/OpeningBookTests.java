@@ -0,0 +1,110 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.PackedMove;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class OpeningBookTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Move Lists")
+    public void moveLists() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLIES);
+        builder.addCorpus(new StringReader("""
+                e2e4 e7e5 g1f3
+                e2e4 c7c5
+                d2d4 d7d5
+                e2e4 e7e5 f1c4
+                """));
+        Path path = directory.resolve("book.bin");
+        Assertions.assertEquals(7, builder.write(path));
+
+        OpeningBook book = OpeningBook.open(path);
+        Assertions.assertEquals(7, book.size());
+
+        ChessGame game = new ChessGame();
+        List<OpeningBook.Entry> entries = book.lookup(game.getZobristKey());
+        Assertions.assertEquals(List.of(new OpeningBook.Entry(move("e2", "e4"), 3),
+                new OpeningBook.Entry(move("d2", "d4"), 1)), entries);
+
+        for (int i = 0; i < 20; i++) {
+            int picked = book.pickMove(game);
+            Assertions.assertTrue(picked == move("e2", "e4") || picked == move("d2", "d4"));
+        }
+
+        game.doMove(move("e2", "e4"));
+        Assertions.assertEquals(2, book.lookup(game.getZobristKey()).size());
+        game.doMove(move("e7", "e5"));
+        game.doMove(move("g1", "f3"));
+        Assertions.assertTrue(book.lookup(game.getZobristKey()).isEmpty());
+        Assertions.assertEquals(PackedMove.NONE, book.pickMove(game));
+    }
+
+    @Test
+    @DisplayName("Portable Game Notation")
+    public void portableGameNotation() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(4);
+        builder.addCorpus(new StringReader("""
+                [Event "Casual"]
+                [Result "1-0"]
+
+                1. e4 {best by test} e5 2. Nf3 (2. Bc4 Nf6) Nc6 $1 3. Bb5 a6
+                4. O-O 1-0
+
+                [Event "Casual"]
+                [Result "0-1"]
+
+                1. d4 d5 2. c4! dxc4 0-1
+                """));
+        Assertions.assertEquals(2, builder.getGames());
+        Path path = directory.resolve("book.bin");
+        // four plies from each game, the variation skipped
+        Assertions.assertEquals(8, builder.write(path));
+
+        OpeningBook book = OpeningBook.open(path);
+        ChessGame game = new ChessGame();
+        for (String[] move : new String[][]{{"e2", "e4"}, {"e7", "e5"}, {"g1", "f3"}, {"b8", "c6"}}) {
+            int packed = move(move[0], move[1]);
+            Assertions.assertTrue(book.lookup(game.getZobristKey()).contains(new OpeningBook.Entry(packed, 1)));
+            game.doMove(packed);
+        }
+    }
+
+    @Test
+    @DisplayName("Algebraic Moves")
+    public void algebraicMoves() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(move("g1", "f3"), OpeningBookBuilder.parseMove(game, "Nf3"));
+        Assertions.assertEquals(move("e2", "e4"), OpeningBookBuilder.parseMove(game, "e4"));
+        Assertions.assertEquals(PackedMove.NONE, OpeningBookBuilder.parseMove(game, "e5"));
+        Assertions.assertEquals(PackedMove.NONE, OpeningBookBuilder.parseMove(game, "O-O"));
+        Assertions.assertEquals(PackedMove.NONE, OpeningBookBuilder.parseMove(game, "Zz9"));
+    }
+
+    @Test
+    @DisplayName("Rejects Other Files")
+    public void rejectsOtherFiles() throws IOException {
+        Path path = directory.resolve("notes.txt");
+        Files.writeString(path, "not an opening book at all");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(path));
+    }
+
+    private static int move(String from, String to) {
+        return PackedMove.encode(square(from), square(to), null, false);
+    }
+
+    private static int square(String name) {
+        return Bitboards.square(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+}
@@ -0,0 +1,37 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.*;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Finds Mate With Helpers")
+    public void findsMateWithHelpers() {
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(4))) {
+            SearchResult result = search.search(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w"), SearchLimits.depth(4));
+            Assertions.assertEquals(Search.MATE - 1, result.score());
+            Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null),
+                    result.bestMove());
+        }
+    }
+
+    @Test
+    @DisplayName("Game Not Changed")
+    public void gameNotChanged() {
+        ChessGame game = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w");
+        String before = Fen.write(game);
+        try (ParallelSearch search = new ParallelSearch(3, new TranspositionTable(4))) {
+            for (int i = 0; i < 3; i++) {
+                SearchResult result = search.search(game, new SearchLimits(4, 200_000, 10_000));
+                Assertions.assertTrue(result.hasMove());
+                Assertions.assertTrue(result.depth() >= 1);
+                Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+            }
+        }
+        Assertions.assertEquals(before, Fen.write(game));
+    }
+}
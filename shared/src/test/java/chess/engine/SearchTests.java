@@ -0,0 +1,64 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+public class SearchTests {
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(position(from), position(to), null);
+    }
+
+    private static ChessPosition position(String square) {
+        return ChessPosition.of(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void findsMateInOne() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        Assertions.assertEquals(move("a1", "a8"), result.bestMove());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Queen")
+    public void winsHangingQueen() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(move("d2", "d5"), result.bestMove());
+    }
+
+    @Test
+    @DisplayName("Game Restored After Search")
+    public void gameRestoredAfterSearch() {
+        ChessGame game = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w");
+        String before = Fen.write(game);
+        long key = game.getZobristKey();
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertTrue(result.hasMove());
+        Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+        Assertions.assertEquals(before, Fen.write(game));
+        Assertions.assertEquals(key, game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Node Limit")
+    public void nodeLimit() {
+        SearchResult result = new Search().search(new ChessGame(), new SearchLimits(Search.MAX_PLY, 5_000, 60_000));
+        Assertions.assertTrue(result.hasMove());
+        Assertions.assertTrue(result.depth() >= 1);
+        // depth 1 may run past the limit, but nothing after it does
+        Assertions.assertTrue(result.nodes() <= 5_000 + 64, "Searched " + result.nodes() + " nodes");
+    }
+
+    @Test
+    @DisplayName("No Moves")
+    public void noMoves() {
+        ChessGame game = Fen.parse("K1k5/8/1q6/8/8/8/8/8 w");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertFalse(result.hasMove());
+        Assertions.assertEquals(0, result.score());
+    }
+}
@@ -0,0 +1,106 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.PackedMove;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class TablebaseTests {
+    private static Tablebases tablebases;
+    private static TablebaseGenerator generator;
+
+    @BeforeAll
+    public static void generate() {
+        generator = new TablebaseGenerator();
+        generator.generate("KQK");
+        generator.generate("KRK");
+        generator.generate("KPK");
+        tablebases = new Tablebases(generator.getTables());
+    }
+
+    @Test
+    @DisplayName("Mates And Draws")
+    public void matesAndDraws() {
+        assertResult("k7/8/1K6/8/8/8/7Q/8 w - - 0 1", TablebaseResult.Outcome.WIN, 1);
+        assertResult("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1", TablebaseResult.Outcome.LOSS, 0);
+        // stalemate, and a queen left hanging
+        assertResult("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1", TablebaseResult.Outcome.DRAW, 0);
+        assertResult("k7/1Q6/8/8/8/8/8/K7 b - - 0 1", TablebaseResult.Outcome.DRAW, 0);
+        Assertions.assertEquals(TablebaseResult.DRAW, tablebases.probe(Fen.parse("k7/8/8/8/8/8/8/K7 w - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("Longest Mates")
+    public void longestMates() {
+        // mate in 10 moves with a queen and in 16 with a rook, at worst
+        Assertions.assertEquals(19, longestWin("KQK"));
+        Assertions.assertEquals(31, longestWin("KRK"));
+    }
+
+    @Test
+    @DisplayName("Pawn Endings")
+    public void pawnEndings() {
+        // the defending king holds the opposition in front of the pawn
+        Assertions.assertEquals(TablebaseResult.Outcome.DRAW,
+                tablebases.probe(Fen.parse("4k3/8/4P3/4K3/8/8/8/8 w - - 0 1")).outcome());
+        // with the king on the sixth rank ahead of its pawn, white wins whoever moves
+        Assertions.assertEquals(TablebaseResult.Outcome.WIN,
+                tablebases.probe(Fen.parse("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")).outcome());
+        Assertions.assertEquals(TablebaseResult.Outcome.LOSS,
+                tablebases.probe(Fen.parse("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1")).outcome());
+        // a rook pawn cannot drive the king out of the corner
+        Assertions.assertEquals(TablebaseResult.Outcome.DRAW,
+                tablebases.probe(Fen.parse("k7/8/8/8/8/8/P7/K7 w - - 0 1")).outcome());
+        // the same position with the colors swapped
+        Assertions.assertEquals(TablebaseResult.Outcome.LOSS,
+                tablebases.probe(Fen.parse("8/8/8/8/4p3/4k3/8/4K3 w - - 0 1")).outcome());
+    }
+
+    @Test
+    @DisplayName("Best Play Mates On Time")
+    public void bestPlayMatesOnTime() {
+        ChessGame game = Fen.parse("8/8/8/3k4/8/8/8/R3K3 w - - 0 1");
+        TablebaseResult start = tablebases.probe(game);
+        Assertions.assertEquals(TablebaseResult.Outcome.WIN, start.outcome());
+        for (int ply = 0; ply < start.plies(); ply++) {
+            int move = tablebases.bestMove(game);
+            Assertions.assertNotEquals(PackedMove.NONE, move);
+            game.doMove(move);
+            Assertions.assertEquals(start.plies() - ply - 1, tablebases.probe(game).plies());
+        }
+        Assertions.assertTrue(game.isInCheckmate(game.getTeamTurn()));
+    }
+
+    @Test
+    @DisplayName("Mapped Files")
+    public void mappedFiles(@TempDir Path directory) throws IOException {
+        for (Tablebase table : generator.getTables()) {
+            table.write(directory);
+        }
+        Tablebases mapped = Tablebases.open(directory);
+        Assertions.assertEquals(generator.getTables().size(), mapped.getTables().size());
+        ChessGame game = Fen.parse("8/8/8/3k4/8/8/8/R3K3 w - - 0 1");
+        Assertions.assertEquals(tablebases.probe(game), mapped.probe(game));
+        Assertions.assertNull(mapped.probe(new ChessGame()));
+    }
+
+    private static void assertResult(String fen, TablebaseResult.Outcome outcome, int plies) {
+        Assertions.assertEquals(new TablebaseResult(outcome, plies), tablebases.probe(Fen.parse(fen)));
+    }
+
+    private static int longestWin(String signature) {
+        Tablebase table = generator.generate(signature);
+        int longest = 0;
+        for (int index = 0; index < table.size(); index++) {
+            TablebaseResult result = TablebaseResult.of(table.value(index));
+            if (result != null && result.outcome() == TablebaseResult.Outcome.WIN) {
+                longest = Math.max(longest, result.plies());
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,56 @@
+package chess.engine;
+
+import chess.Fen;
+import org.junit.jupiter.api.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Store And Probe")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        table.store(key, 7, TranspositionTable.LOWER, -4321, 0x8ABC);
+
+        long entry = table.probe(key);
+        Assertions.assertNotEquals(0, entry);
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        Assertions.assertEquals(-4321, TranspositionTable.score(entry));
+        Assertions.assertEquals(0x8ABC, TranspositionTable.move(entry));
+
+        // same slot, different position
+        Assertions.assertEquals(0, table.probe(key + table.capacity()));
+        Assertions.assertEquals(0.5, table.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Deeper Entry Kept")
+    public void deeperEntryKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42;
+        long other = key + table.capacity();
+        table.store(key, 10, TranspositionTable.EXACT, 5, 0);
+        table.store(other, 3, TranspositionTable.EXACT, 6, 0);
+        Assertions.assertEquals(10, TranspositionTable.depth(table.probe(key)));
+
+        // entries from an earlier search give way
+        table.newSearch();
+        table.store(other, 3, TranspositionTable.EXACT, 6, 0);
+        Assertions.assertEquals(0, table.probe(key));
+        Assertions.assertEquals(6, TranspositionTable.score(table.probe(other)));
+    }
+
+    @Test
+    @DisplayName("Shared Table Search")
+    public void sharedTableSearch() {
+        TranspositionTable table = new TranspositionTable(4);
+        Search search = new Search(new Evaluator(), table);
+        SearchResult first = search.search(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w"), SearchLimits.depth(4));
+        SearchResult second = new Search(new Evaluator(), table).search(
+                Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w"), SearchLimits.depth(4));
+        Assertions.assertEquals(first.move(), second.move());
+        Assertions.assertEquals(Search.MATE - 1, second.score());
+        Assertions.assertTrue(table.getHits() > 0);
+    }
+}
@@ -0,0 +1,102 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Fen;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+
+public class TunerTests {
+
+    @Test
+    @DisplayName("Save And Load")
+    public void saveAndLoad(@TempDir Path directory) throws IOException {
+        int[] values = {0, 1000, 300, 300, 450, 90};
+        int[][] midgame = new Evaluator().getMidgameTables();
+        int[][] endgame = new Evaluator().getEndgameTables();
+        midgame[5][12] = 77;
+        endgame[0][20] = -12;
+        Evaluator evaluator = new Evaluator(values, midgame, endgame);
+        Path path = directory.resolve("weights.txt");
+        evaluator.save(path);
+
+        Evaluator loaded = Evaluator.load(path);
+        Assertions.assertArrayEquals(values, loaded.getPieceValues());
+        Assertions.assertArrayEquals(midgame, loaded.getMidgameTables());
+        Assertions.assertArrayEquals(endgame, loaded.getEndgameTables());
+        ChessBoard board = Fen.parseBoard("4k3/8/8/8/3P4/8/8/4K3");
+        Assertions.assertEquals(evaluator.evaluate(board, ChessGame.TeamColor.WHITE),
+                loaded.evaluate(board, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Read Positions")
+    public void readPositions() throws IOException {
+        TuningSet positions = new TuningSet();
+        int added = positions.read(new StringReader("""
+                rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1 1/2-1/2
+                4k3/8/8/8/8/8/8/3QK3 w - - 0 1 [1.0]
+                4k3/8/8/8/8/8/8/3qK3 b - - c9 "0-1";
+                4k3/8/8/8/8/8/8/4K3 w - - 0 1
+                """));
+        Assertions.assertEquals(3, added);
+        Assertions.assertEquals(0.5, positions.result(0));
+        Assertions.assertEquals(1.0, positions.result(1));
+        Assertions.assertEquals(0.0, positions.result(2));
+        Assertions.assertEquals(32, positions.end(0) - positions.start(0));
+        Assertions.assertEquals(3, positions.end(1) - positions.start(1));
+    }
+
+    @Test
+    @DisplayName("Learns Material")
+    public void learnsMaterial() {
+        // the side a knight up wins, and even positions are drawn
+        TuningSet positions = new TuningSet();
+        for (int file = 0; file < 8; file++) {
+            positions.add(Fen.parseBoard("4k3/pppppppp/8/8/8/" + knightRank(file, 'N') + "/PPPPPPPP/4K3"), 1);
+            positions.add(Fen.parseBoard("4k3/pppppppp/" + knightRank(file, 'n') + "/8/8/8/PPPPPPPP/4K3"), 0);
+            positions.add(Fen.parseBoard("4k3/pppppppp/" + knightRank(file, 'n') + "/8/8/"
+                    + knightRank(7 - file, 'N') + "/PPPPPPPP/4K3"), 0.5);
+        }
+
+        int[] values = new Evaluator().getPieceValues();
+        values[3] = 0;
+        Evaluator start = new Evaluator(values, new Evaluator().getMidgameTables(), new Evaluator().getEndgameTables());
+        Tuner tuner = new Tuner(positions);
+        tuner.fitScale(new Evaluator());
+        Evaluator tuned = tuner.tune(start, 200, null);
+
+        Assertions.assertTrue(tuner.error(tuned) < tuner.error(start));
+        Assertions.assertTrue(tuned.getPieceValues()[3] > 0);
+        ChessBoard knightUp = Fen.parseBoard("4k3/pppppppp/8/8/8/3N4/PPPPPPPP/4K3");
+        Assertions.assertTrue(tuned.evaluate(knightUp, ChessGame.TeamColor.WHITE)
+                > start.evaluate(knightUp, ChessGame.TeamColor.WHITE) + 75);
+    }
+
+    @Test
+    @DisplayName("Default Weights Score Alike")
+    public void defaultWeightsScoreAlike() {
+        Evaluator defaults = new Evaluator();
+        // the same weights through the public constructor, once with a single changed entry to force the piece walk
+        Evaluator same = new Evaluator(defaults.getPieceValues(), defaults.getMidgameTables(), defaults.getEndgameTables());
+        int[][] midgame = defaults.getMidgameTables();
+        midgame[1][0] += 1; // a queen on a8 is not in any position below
+        Evaluator walked = new Evaluator(defaults.getPieceValues(), midgame, defaults.getEndgameTables());
+        for (String fen : new String[]{Fen.START_POSITION, "4k3/8/8/8/8/8/4P3/4K3 w - - 0 1",
+                "r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w - - 0 1",
+                "8/5k2/8/3p4/8/2R5/5PK1/8 b - - 0 1"}) {
+            ChessBoard board = Fen.parse(fen).getBoard();
+            int expected = defaults.evaluate(board, ChessGame.TeamColor.WHITE);
+            Assertions.assertEquals(expected, same.evaluate(board, ChessGame.TeamColor.WHITE), fen);
+            Assertions.assertEquals(expected, walked.evaluate(board, ChessGame.TeamColor.WHITE), fen);
+        }
+    }
+
+    private static String knightRank(int file, char knight) {
+        return (file > 0 ? String.valueOf(file) : "") + knight + (file < 7 ? String.valueOf(7 - file) : "");
+    }
+}